@@ -0,0 +1,122 @@
+package io.bytegate.bench;
+
+import io.bytegate.ExecutionMode;
+import io.bytegate.TransportType;
+import io.bytegate.WebServer;
+import io.bytegate.log.LogLevel;
+import io.bytegate.model.HttpResponse;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"BLOCKING", "NIO"})
+        public String transport;
+
+        @Param({"THREAD_POOL", "VIRTUAL_THREADS"})
+        public String executionMode;
+
+        @Param({"/fast", "/blocking"})
+        public String route;
+
+        int port;
+        byte[] request;
+        private WebServer server;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            port = freePort();
+            request = ("GET " + route + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+            HttpResponse ok = HttpResponse.ok("ok");
+            server = new WebServer.Builder()
+                    .port(port)
+                    .threadPoolSize(20)
+                    .transport(TransportType.valueOf(transport))
+                    .executionMode(ExecutionMode.valueOf(executionMode))
+                    .maxRequestsPerConnection(Integer.MAX_VALUE)
+                    .logLevel(LogLevel.OFF)
+                    .route("GET", "/fast", req -> ok)
+                    .route("GET", "/blocking", req -> {
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return ok;
+                    })
+                    .build();
+            server.start();
+            awaitListening(port);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            server.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private LoopbackClient connection;
+
+        @Setup(Level.Trial)
+        public void connect(Server server) throws IOException {
+            connection = new LoopbackClient(server.port);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int keepAliveRequest(Server server, Client client) throws IOException {
+        return client.connection.exchange(server.request);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitListening(int port) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try (Socket ignored = new Socket("127.0.0.1", port)) {
+                return;
+            } catch (IOException e) {
+                Thread.sleep(20);
+            }
+        }
+        throw new IllegalStateException("Server did not start listening on port " + port);
+    }
+}
@@ -0,0 +1,84 @@
+package io.bytegate.bench;
+
+import io.bytegate.ThreadPoolManager;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"THREAD_POOL", "VIRTUAL_THREADS"})
+    public String mode;
+
+    @Param({"50", "500"})
+    public int batchSize;
+
+    @Param({"1"})
+    public int blockingMillis;
+
+    private ThreadPoolManager poolManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        poolManager = mode.equals("VIRTUAL_THREADS")
+                ? ThreadPoolManager.createVirtual(ThreadPoolManager.DEFAULT_MAX_CONCURRENCY)
+                : ThreadPoolManager.create(ThreadPoolManager.MAX_POOL_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        poolManager.close();
+    }
+
+    @Benchmark
+    public void blockingBatch(Rejections rejections) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            boolean accepted = poolManager.submitTask(() -> {
+                try {
+                    Thread.sleep(blockingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            if (!accepted) {
+                rejections.rejected.incrementAndGet();
+                done.countDown();
+            }
+        }
+        done.await();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rejections {
+
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        public int rejected() {
+            return rejected.get();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.bytegate.bench;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.util.HttpRequestParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpRequestParserBenchmark {
+
+    @Param({"minimal", "browser", "post"})
+    public String request;
+
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private HttpRequestParser reusedParser;
+
+    @Setup
+    public void setup() {
+        bytes = Requests.named(request).getBytes(StandardCharsets.US_ASCII);
+        buffer = ByteBuffer.wrap(bytes);
+        reusedParser = new HttpRequestParser();
+    }
+
+    @Benchmark
+    public HttpRequest parseFromStream() throws IOException {
+        return new HttpRequestParser(new ByteArrayInputStream(bytes)).parse();
+    }
+
+    @Benchmark
+    public HttpRequest parseFedBuffer() {
+        buffer.clear();
+        reusedParser.feed(buffer);
+        return reusedParser.tryParse();
+    }
+
+    @Benchmark
+    public String parseAndReadPathAndQuery() {
+        buffer.clear();
+        reusedParser.feed(buffer);
+        HttpRequest parsed = reusedParser.tryParse();
+        return parsed.getPath() + parsed.getQueryParam("keyword");
+    }
+}
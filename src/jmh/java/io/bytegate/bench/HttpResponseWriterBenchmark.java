@@ -0,0 +1,66 @@
+package io.bytegate.bench;
+
+import io.bytegate.model.HttpResponse;
+import io.bytegate.util.HttpResponseWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpResponseWriterBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int bodySize;
+
+    private final OutputStream discard = OutputStream.nullOutputStream();
+    private final HttpResponseWriter writer = new HttpResponseWriter();
+    private HttpResponse response;
+
+    @Setup
+    public void setup() {
+        response = HttpResponse.newBuilder()
+                .status(200, "OK")
+                .header("Content-Type", "application/json")
+                .header("Cache-Control", "no-store")
+                .header("X-Request-Id", "7d3c1f52-3e0b-4f1c-9b55-0a8f5d8c2e61")
+                .body("x".repeat(bodySize))
+                .build();
+    }
+
+    @Benchmark
+    public void writeKeepAlive() throws IOException {
+        HttpResponseWriter.write(discard, response, true);
+    }
+
+    @Benchmark
+    public void sendReusedWriter() throws IOException {
+        writer.send(discard, response, true);
+    }
+
+    @Benchmark
+    public ByteBuffer[] encodeReusedWriter() throws IOException {
+        return writer.encode(response, true);
+    }
+
+    @Benchmark
+    public void writeNotFound() throws IOException {
+        writer.send(discard, HttpResponse.notFound(), true);
+    }
+}
@@ -0,0 +1,66 @@
+package io.bytegate.bench;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+final class LoopbackClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final InputStream input;
+    private final OutputStream output;
+    private final byte[] line = new byte[8192];
+
+    LoopbackClient(int port) throws IOException {
+        this(new Socket("127.0.0.1", port));
+    }
+
+    LoopbackClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.socket.setTcpNoDelay(true);
+        this.input = new BufferedInputStream(socket.getInputStream());
+        this.output = socket.getOutputStream();
+    }
+
+    int exchange(byte[] request) throws IOException {
+        output.write(request);
+        output.flush();
+
+        int status = -1;
+        int contentLength = 0;
+        int length;
+        while ((length = readLine()) > 0) {
+            String header = new String(line, 0, length, StandardCharsets.ISO_8859_1);
+            if (status < 0) {
+                status = Integer.parseInt(header.substring(9, 12));
+            } else if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(header.substring(15).trim());
+            }
+        }
+        if (length < 0) {
+            throw new IOException("Connection closed by server");
+        }
+        input.skipNBytes(contentLength);
+        return status;
+    }
+
+    private int readLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = input.read()) != -1) {
+            if (b == '\n') {
+                return length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+            }
+            line[length++] = (byte) b;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
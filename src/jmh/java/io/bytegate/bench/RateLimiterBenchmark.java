@@ -0,0 +1,79 @@
+package io.bytegate.bench;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.ratelimit.RateLimitKey;
+import io.bytegate.ratelimit.RateLimiter;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private HttpRequest[] requests;
+    private RateLimiter open;
+    private RateLimiter exhausted;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Setup
+    public void setup() throws UnknownHostException {
+        requests = new HttpRequest[clients];
+        for (int i = 0; i < clients; i++) {
+            InetAddress address = InetAddress.getByAddress(new byte[] {10, (byte) (i >> 16), (byte) (i >> 8), (byte) i});
+            requests[i] = HttpRequest.newBuilder().target("/api/notes/1").remoteAddress(address).build();
+        }
+        open = new RateLimiter(RateLimitKey.clientAddress(), 1e9, 1_000_000, clients * 2, Duration.ofMinutes(1));
+        exhausted = new RateLimiter(RateLimitKey.clientAddress(), 1, 1, clients * 2, Duration.ofMinutes(1));
+        for (HttpRequest request : requests) {
+            exhausted.intercept(request, null);
+        }
+    }
+
+    @Benchmark
+    public HttpResponse allowed(Cursor cursor) {
+        return open.intercept(next(cursor), null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public HttpResponse allowedContended(Cursor cursor) {
+        return open.intercept(next(cursor), null);
+    }
+
+    @Benchmark
+    public HttpResponse limited(Cursor cursor) {
+        return exhausted.intercept(next(cursor), null);
+    }
+
+    private HttpRequest next(Cursor cursor) {
+        int i = cursor.next;
+        cursor.next = i + 1 == requests.length ? 0 : i + 1;
+        return requests[i];
+    }
+}
@@ -0,0 +1,72 @@
+package io.bytegate.bench;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.util.HttpRequestParser;
+import io.bytegate.util.HttpResponseWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx256m"})
+public class RequestRecyclingBenchmark {
+
+    @Param({"minimal", "browser", "post"})
+    public String request;
+
+    private ByteBuffer buffer;
+    private HttpRequestParser freshParser;
+    private HttpRequestParser recyclingParser;
+    private final HttpResponseWriter writer = new HttpResponseWriter();
+
+    @Setup
+    public void setup() {
+        buffer = ByteBuffer.wrap(Requests.named(request).getBytes(StandardCharsets.US_ASCII));
+        freshParser = new HttpRequestParser(null, HttpRequestParser.DEFAULT_MAX_BODY_SIZE,
+                HttpRequestParser.DEFAULT_SPILL_THRESHOLD, false);
+        recyclingParser = new HttpRequestParser(null, HttpRequestParser.DEFAULT_MAX_BODY_SIZE,
+                HttpRequestParser.DEFAULT_SPILL_THRESHOLD, true);
+    }
+
+    @Benchmark
+    public int fresh() throws IOException {
+        return exchange(freshParser);
+    }
+
+    @Benchmark
+    public int recycled() throws IOException {
+        return exchange(recyclingParser);
+    }
+
+    private int exchange(HttpRequestParser parser) throws IOException {
+        buffer.clear();
+        parser.feed(buffer);
+        HttpRequest parsed = parser.tryParse();
+        HttpResponse response = HttpResponse.newBuilder()
+                .status(200, "OK")
+                .header("Content-Type", "application/json")
+                .header("X-Host", parsed.getHeader("host"))
+                .body(parsed.getPath())
+                .build();
+        int encoded = writer.encode(response, true)[0].remaining();
+        parser.recycle(parsed);
+        return encoded;
+    }
+}
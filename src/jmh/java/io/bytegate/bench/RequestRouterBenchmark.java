@@ -0,0 +1,68 @@
+package io.bytegate.bench;
+
+import io.bytegate.RequestRouter;
+import io.bytegate.RouteMatch;
+import io.bytegate.model.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestRouterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routes;
+
+    private RequestRouter router;
+    private String staticPath;
+    private String paramPath;
+    private String missPath;
+
+    @Setup
+    public void setup() {
+        router = new RequestRouter();
+        HttpResponse response = HttpResponse.ok("ok");
+        for (int i = 0; i < routes; i++) {
+            String resource = "/api/v1/resource" + i;
+            switch (i % 4) {
+                case 0 -> router.register("GET", resource, request -> response);
+                case 1 -> router.register("GET", resource + "/{id}", request -> response);
+                case 2 -> router.register("POST", resource, request -> response);
+                default -> router.register("GET", resource + "/{id}/items/{itemId}", request -> response);
+            }
+        }
+        int last = routes - 1;
+        staticPath = "/api/v1/resource" + (last - last % 4);
+        paramPath = "/api/v1/resource" + (last - (last - 3) % 4) + "/1234/items/99";
+        missPath = "/api/v1/unknown/1234";
+    }
+
+    @Benchmark
+    public RouteMatch resolveStatic() {
+        return router.resolve("GET", staticPath);
+    }
+
+    @Benchmark
+    public RouteMatch resolveParameterized() {
+        return router.resolve("GET", paramPath);
+    }
+
+    @Benchmark
+    public RouteMatch resolveMiss() {
+        return router.resolve("GET", missPath);
+    }
+}
@@ -0,0 +1,71 @@
+package io.bytegate.bench;
+
+import io.bytegate.compression.ResponseCompressor;
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressorBenchmark {
+
+    @Param({"4096", "65536"})
+    public int bodySize;
+
+    private final ResponseCompressor compressor = new ResponseCompressor();
+    private HttpRequest request;
+    private HttpResponse response;
+    private HttpResponse cacheableResponse;
+
+    @Setup
+    public void setup() {
+        request = HttpRequest.newBuilder()
+                .target("/items")
+                .header("Accept-Encoding", "gzip, deflate, br")
+                .build();
+        String json = IntStream.range(0, bodySize / 16 + 1)
+                .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"item " + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"))
+                .substring(0, bodySize);
+        HttpResponse.Builder builder = HttpResponse.newBuilder()
+                .status(200, "OK")
+                .header("Content-Type", "application/json")
+                .header("ETag", "\"items-v1\"")
+                .body(json);
+        response = builder.build();
+        cacheableResponse = builder.cacheable(true).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        compressor.close();
+    }
+
+    @Benchmark
+    public HttpResponse compress() {
+        return compressor.compress(request, response);
+    }
+
+    @Benchmark
+    public HttpResponse compressCached() {
+        return compressor.compress(request, cacheableResponse);
+    }
+}
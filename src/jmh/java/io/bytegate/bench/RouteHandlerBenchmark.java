@@ -0,0 +1,77 @@
+package io.bytegate.bench;
+
+import io.bytegate.ControllerScanner;
+import io.bytegate.RequestRouter;
+import io.bytegate.RouteHandler;
+import io.bytegate.annotation.Route;
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteHandlerBenchmark {
+
+    private final Controller controller = new Controller();
+    private final HttpRequest request = HttpRequest.newBuilder().target("/bench").build();
+
+    private RouteHandler scanned;
+    private RouteHandler reflective;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        RequestRouter router = new RequestRouter();
+        ControllerScanner.scan(controller, router);
+        scanned = router.resolve("GET", "/bench").handler();
+
+        Method method = Controller.class.getDeclaredMethod("handle", HttpRequest.class);
+        method.setAccessible(true);
+        reflective = req -> {
+            try {
+                return (HttpResponse) method.invoke(controller, req);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to invoke @Route method: " + method.getName(), e);
+            }
+        };
+    }
+
+    @Benchmark
+    public HttpResponse direct() {
+        return controller.handle(request);
+    }
+
+    @Benchmark
+    public HttpResponse scannedHandler() {
+        return scanned.handle(request);
+    }
+
+    @Benchmark
+    public HttpResponse reflectiveInvoke() {
+        return reflective.handle(request);
+    }
+
+    public static class Controller {
+
+        private final HttpResponse response = HttpResponse.ok("ok");
+
+        @Route(method = "GET", path = "/bench")
+        public HttpResponse handle(HttpRequest request) {
+            return response;
+        }
+    }
+}
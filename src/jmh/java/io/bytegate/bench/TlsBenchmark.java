@@ -0,0 +1,191 @@
+package io.bytegate.bench;
+
+import io.bytegate.TransportType;
+import io.bytegate.WebServer;
+import io.bytegate.log.LogLevel;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.tls.TlsConfig;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TlsBenchmark {
+
+    private static final byte[] REQUEST = "GET /fast HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LAST_REQUEST =
+            "GET /fast HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Param({"TLSv1.3", "TLSv1.2"})
+    public String protocol;
+
+    private Path keyStoreDir;
+    private WebServer plainServer;
+    private WebServer tlsServer;
+    private int plainPort;
+    private int tlsPort;
+    private SSLContext client;
+    private LoopbackClient plainConnection;
+    private LoopbackClient tlsConnection;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        keyStoreDir = Files.createTempDirectory("bytegate-tls");
+        Path keyStore = keyStoreDir.resolve("server.p12");
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-keyalg", "EC", "-alias", "server", "-dname", "CN=localhost", "-validity", "1",
+                "-keystore", keyStore.toString(), "-storepass", "changeit")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed with exit code " + keytool.exitValue());
+        }
+
+        plainPort = freePort();
+        tlsPort = freePort();
+        plainServer = newServer(plainPort, null);
+        tlsServer = newServer(tlsPort, TlsConfig.fromKeyStore(keyStore, "changeit").withProtocols(protocol));
+        awaitListening(plainPort);
+        awaitListening(tlsPort);
+
+        client = newClientContext();
+        plainConnection = new LoopbackClient(plainPort);
+        tlsConnection = new LoopbackClient(connect(client));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        plainConnection.close();
+        tlsConnection.close();
+        plainServer.stop();
+        tlsServer.stop();
+        try (var files = Files.list(keyStoreDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(keyStoreDir);
+    }
+
+    @Benchmark
+    public int plainConnect() throws IOException {
+        try (LoopbackClient connection = new LoopbackClient(plainPort)) {
+            return connection.exchange(LAST_REQUEST);
+        }
+    }
+
+    @Benchmark
+    public int fullHandshake() throws IOException, GeneralSecurityException {
+        try (LoopbackClient connection = new LoopbackClient(connect(newClientContext()))) {
+            return connection.exchange(LAST_REQUEST);
+        }
+    }
+
+    @Benchmark
+    public int resumedHandshake() throws IOException {
+        try (LoopbackClient connection = new LoopbackClient(connect(client))) {
+            return connection.exchange(LAST_REQUEST);
+        }
+    }
+
+    @Benchmark
+    public int plainKeepAliveRequest() throws IOException {
+        return plainConnection.exchange(REQUEST);
+    }
+
+    @Benchmark
+    public int tlsKeepAliveRequest() throws IOException {
+        return tlsConnection.exchange(REQUEST);
+    }
+
+    private SSLSocket connect(SSLContext context) throws IOException {
+        Socket tcp = new Socket("127.0.0.1", tlsPort);
+        tcp.setTcpNoDelay(true);
+        SSLSocket socket = (SSLSocket) context.getSocketFactory().createSocket(tcp, "localhost", tlsPort, true);
+        socket.setEnabledProtocols(new String[] {protocol});
+        socket.startHandshake();
+        return socket;
+    }
+
+    private static SSLContext newClientContext() throws GeneralSecurityException {
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[] {new TrustAll()}, null);
+        return context;
+    }
+
+    private static WebServer newServer(int port, TlsConfig tls) {
+        HttpResponse ok = HttpResponse.ok("ok");
+        WebServer server = new WebServer.Builder()
+                .port(port)
+                .transport(TransportType.NIO)
+                .maxRequestsPerConnection(Integer.MAX_VALUE)
+                .logLevel(LogLevel.OFF)
+                .route("GET", "/fast", req -> ok)
+                .tls(tls)
+                .build();
+        server.start();
+        return server;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitListening(int port) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try (Socket ignored = new Socket("127.0.0.1", port)) {
+                return;
+            } catch (IOException e) {
+                Thread.sleep(20);
+            }
+        }
+        throw new IllegalStateException("Server did not start listening on port " + port);
+    }
+
+    private static final class TrustAll implements X509TrustManager {
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
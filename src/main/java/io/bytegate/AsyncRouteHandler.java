@@ -0,0 +1,24 @@
+package io.bytegate;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+@FunctionalInterface
+public interface AsyncRouteHandler extends RouteHandler {
+
+    CompletionStage<HttpResponse> handleAsync(HttpRequest request);
+
+    @Override
+    default HttpResponse handle(HttpRequest request) {
+        try {
+            return handleAsync(request).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.bytegate;
+
+import java.time.Duration;
+
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final ThreadPoolManager executor;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Bulkhead name must not be blank");
+        }
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Bulkhead " + name + " max concurrency must be at least 1: " + maxConcurrent);
+        }
+        if (maxQueue < 0) {
+            throw new IllegalArgumentException("Bulkhead " + name + " queue size must not be negative: " + maxQueue);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.executor = ThreadPoolManager.createBounded(maxConcurrent, maxQueue, "bytegate-bulkhead-" + name + "-");
+    }
+
+    public boolean submit(Runnable task) {
+        return executor.submitTask(task);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueueDepth();
+    }
+
+    public long getRejectedCount() {
+        return executor.getRejectedCount();
+    }
+
+    public void close(Duration timeout) {
+        executor.close(timeout);
+    }
+}
@@ -1,12 +1,25 @@
 package io.bytegate;
 
 import io.bytegate.annotation.Route;
+import io.bytegate.cache.CachePolicy;
 import io.bytegate.model.HttpRequest;
 import io.bytegate.model.HttpResponse;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
 
 public class ControllerScanner {
 
+    private static final MethodType HANDLE_TYPE = MethodType.methodType(HttpResponse.class, HttpRequest.class);
+    private static final MethodType HANDLE_ASYNC_TYPE = MethodType.methodType(CompletionStage.class, HttpRequest.class);
+
     public static void scan(Object controller, RequestRouter router) {
         for (Method method : controller.getClass().getDeclaredMethods()) {
             Route route = method.getAnnotation(Route.class);
@@ -18,26 +31,134 @@ public class ControllerScanner {
 
             method.setAccessible(true);
             RouteHandler handler = createHandler(controller, method);
-            router.register(route.method(), route.path(), handler);
+            router.register(route.method(), route.path(), handler, cachePolicy(route, method));
+            router.priority(route.method(), route.path(), route.priority());
+            router.timeout(route.method(), route.path(), timeout(route, method));
+            if (!route.bulkhead().isEmpty()) {
+                router.bulkhead(route.method(), route.path(), route.bulkhead());
+            }
         }
     }
 
+    private static CachePolicy cachePolicy(Route route, Method method) {
+        if (route.cacheSeconds() < 0) {
+            throw new IllegalArgumentException("@Route cacheSeconds must not be negative. Invalid method: " + method.getName());
+        }
+        if (route.cacheSeconds() == 0) {
+            return null;
+        }
+        return CachePolicy.of(Duration.ofSeconds(route.cacheSeconds()))
+                .withQueryParams(route.cacheKeyParams())
+                .withHeaders(route.cacheKeyHeaders());
+    }
+
+    private static Duration timeout(Route route, Method method) {
+        if (route.timeoutMillis() < 0) {
+            throw new IllegalArgumentException("@Route timeoutMillis must not be negative. Invalid method: " + method.getName());
+        }
+        if (route.timeoutMillis() == 0) {
+            return null;
+        }
+        if (!isAsync(method)) {
+            throw new IllegalArgumentException(
+                    "@Route timeoutMillis requires a CompletionStage<HttpResponse> return type. Invalid method: "
+                            + method.getName());
+        }
+        return Duration.ofMillis(route.timeoutMillis());
+    }
+
     private static RouteHandler createHandler(Object controller, Method method) {
+        if (!declaresCheckedExceptions(method)) {
+            try {
+                return createDirectHandler(controller, method);
+            } catch (Throwable e) {
+                // Fall through to the method handle path, e.g. when the controller's module is not open to us.
+            }
+        }
+        return createMethodHandleHandler(controller, method);
+    }
+
+    private static RouteHandler createDirectHandler(Object controller, Method method) throws Throwable {
+        Class<?> controllerClass = controller.getClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(controllerClass, MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        boolean async = isAsync(method);
+        Class<?> handlerType = async ? AsyncRouteHandler.class : RouteHandler.class;
+        MethodType handleType = async ? HANDLE_ASYNC_TYPE : HANDLE_TYPE;
+
+        MethodType factoryType = isStatic
+                ? MethodType.methodType(handlerType)
+                : MethodType.methodType(handlerType, controllerClass);
+        CallSite callSite = LambdaMetafactory.metafactory(
+                lookup, async ? "handleAsync" : "handle", factoryType, handleType, target, handleType);
+
+        return isStatic
+                ? (RouteHandler) callSite.getTarget().invoke()
+                : (RouteHandler) callSite.getTarget().invoke(controller);
+    }
+
+    private static RouteHandler createMethodHandleHandler(Object controller, Method method) {
+        MethodHandle target;
+        try {
+            target = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access @Route method: " + method.getName(), e);
+        }
+        MethodHandle bound = Modifier.isStatic(method.getModifiers()) ? target : target.bindTo(controller);
+        if (isAsync(method)) {
+            MethodHandle invoker = bound.asType(HANDLE_ASYNC_TYPE);
+            return (AsyncRouteHandler) request -> {
+                try {
+                    @SuppressWarnings("unchecked")
+                    CompletionStage<HttpResponse> stage = (CompletionStage<HttpResponse>) invoker.invokeExact(request);
+                    return stage;
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException("Failed to invoke @Route method: " + method.getName(), e);
+                }
+            };
+        }
+        MethodHandle invoker = bound.asType(HANDLE_TYPE);
+
         return request -> {
             try {
-                return (HttpResponse) method.invoke(controller, request);
-            } catch (Exception e) {
+                return (HttpResponse) invoker.invokeExact(request);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new RuntimeException("Failed to invoke @Route method: " + method.getName(), e);
             }
         };
     }
 
+    private static boolean declaresCheckedExceptions(Method method) {
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (!RuntimeException.class.isAssignableFrom(exceptionType) && !Error.class.isAssignableFrom(exceptionType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsync(Method method) {
+        return CompletionStage.class.isAssignableFrom(method.getReturnType());
+    }
+
+    private static boolean completesWithResponse(Method method) {
+        return method.getGenericReturnType() instanceof ParameterizedType type
+                && type.getActualTypeArguments()[0] == HttpResponse.class;
+    }
+
     private static void validateMethod(Method method) {
         if (method.getParameterCount() != 1
                 || method.getParameterTypes()[0] != HttpRequest.class
-                || method.getReturnType() != HttpResponse.class) {
+                || method.getReturnType() != HttpResponse.class && !(isAsync(method) && completesWithResponse(method))) {
             throw new IllegalArgumentException(
-                    "@Route method must have signature: HttpResponse methodName(HttpRequest). "
+                    "@Route method must have signature: HttpResponse methodName(HttpRequest) "
+                            + "or CompletionStage<HttpResponse> methodName(HttpRequest). "
                             + "Invalid method: " + method.getName());
         }
     }
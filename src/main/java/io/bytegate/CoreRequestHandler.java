@@ -1,50 +1,561 @@
 package io.bytegate;
 
+import io.bytegate.admission.AdmissionController;
+import io.bytegate.admission.Priority;
+import io.bytegate.cache.ResponseCache;
+import io.bytegate.compression.ResponseCompressor;
 import io.bytegate.log.Logger;
+import io.bytegate.metrics.Metrics;
+import io.bytegate.metrics.RouteMetrics;
 import io.bytegate.model.HttpRequest;
 import io.bytegate.model.HttpResponse;
+import io.bytegate.timeout.ConnectionDeadline;
+import io.bytegate.timeout.Deadline;
+import io.bytegate.timeout.DeadlinePolicy;
+import io.bytegate.timeout.TimerWheel;
+import io.bytegate.util.HttpParseException;
 import io.bytegate.util.HttpRequestParser;
 import io.bytegate.util.HttpResponseWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
 
 public class CoreRequestHandler {
 
     private final RequestRouter router;
     private final Logger logger;
+    private final Duration keepAliveTimeout;
+    private final int maxRequestsPerConnection;
+    private final long maxRequestBodySize;
+    private final int requestBodySpillThreshold;
+    private final ResponseCache responseCache;
+    private final ResponseCompressor compressor;
+    private final Metrics metrics;
+    private final AdmissionController admission;
+    private final int pipelineDepth;
+    private final boolean parallelPipelining;
+    private final boolean recycleRequests;
+    private final TimerWheel timerWheel;
+    private final DeadlinePolicy deadlines;
+    private final int maxRequestLine;
+    private final int maxHeaderCount;
+    private final int maxHeadSize;
+    private final Map<String, Bulkhead> bulkheads;
+    private final Interceptor[] interceptors;
+    private final Set<Socket> idleConnections = ConcurrentHashMap.newKeySet();
+    private volatile boolean draining;
 
-    public CoreRequestHandler(RequestRouter router, Logger logger) {
+    public CoreRequestHandler(RequestRouter router, Logger logger, Duration keepAliveTimeout, int maxRequestsPerConnection,
+                              long maxRequestBodySize, int requestBodySpillThreshold, ResponseCache responseCache,
+                              ResponseCompressor compressor, Metrics metrics, AdmissionController admission,
+                              int pipelineDepth, boolean parallelPipelining, boolean recycleRequests,
+                              TimerWheel timerWheel, DeadlinePolicy deadlines, int maxRequestLine, int maxHeaderCount,
+                              int maxHeadSize, Map<String, Bulkhead> bulkheads, List<Interceptor> interceptors) {
         this.router = router;
         this.logger = logger;
+        this.keepAliveTimeout = keepAliveTimeout;
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+        this.maxRequestBodySize = maxRequestBodySize;
+        this.requestBodySpillThreshold = requestBodySpillThreshold;
+        this.responseCache = responseCache;
+        this.compressor = compressor;
+        this.metrics = metrics;
+        this.admission = admission;
+        this.pipelineDepth = pipelineDepth;
+        this.parallelPipelining = parallelPipelining;
+        this.recycleRequests = recycleRequests;
+        this.timerWheel = timerWheel;
+        this.deadlines = deadlines;
+        this.maxRequestLine = maxRequestLine;
+        this.maxHeaderCount = maxHeaderCount;
+        this.maxHeadSize = maxHeadSize;
+        this.bulkheads = bulkheads;
+        this.interceptors = interceptors.toArray(new Interceptor[0]);
     }
 
-    public void handleRequest(Socket conn) {
-        HttpRequest request = parseRequest(conn);
+    public void handleConnection(Socket conn, ThreadPoolManager pool) {
+        HttpRequestParser parser = null;
+        ConnectionDeadline deadline = newDeadline(expired -> {
+            metrics.timedOut(expired);
+            logger.debug("Closing connection after missing the {} deadline", expired);
+            close(conn);
+        });
+        metrics.connectionOpened();
+        try {
+            conn.setSoTimeout((int) keepAliveTimeout.toMillis());
+            conn.setTcpNoDelay(true);
+            parser = createParser(conn.getInputStream());
+            parser.setRemoteAddress(conn.getInetAddress());
+            HttpResponseWriter writer = new HttpResponseWriter();
+            Pipeline pipeline = newPipeline();
+
+            boolean keepAlive = true;
+            while (keepAlive) {
+                if (pipeline.served() > 0 && !parser.hasBufferedData()) {
+                    idleConnections.add(conn);
+                    if (draining) {
+                        break;
+                    }
+                }
+                HttpRequest request = parseRequest(parser, conn, writer, deadline);
+                idleConnections.remove(conn);
+                if (request == null) {
+                    break;
+                }
+                collect(pipeline, parser, request);
+                execute(pipeline, pool);
+                awaitDeferred(pipeline);
+                keepAlive = send(conn, writer, pipeline, deadline);
+                pipeline.recycle(parser);
+            }
+        } catch (SocketTimeoutException e) {
+            logger.debug("Closing idle connection after {}ms", keepAliveTimeout.toMillis());
+        } catch (IOException e) {
+            if (draining) {
+                logger.debug("Connection closed while draining: {}", e.getMessage());
+            } else if (deadline.expired() != null) {
+                logger.debug("Connection closed after {} deadline: {}", deadline.expired(), e.getMessage());
+            } else {
+                logger.error("Connection error: {}", e.getMessage());
+            }
+        } finally {
+            deadline.clear();
+            idleConnections.remove(conn);
+            if (parser != null) {
+                parser.release();
+            }
+            metrics.connectionClosed();
+        }
+    }
+
+    public ConnectionDeadline newDeadline(Consumer<Deadline> onExpired) {
+        return new ConnectionDeadline(timerWheel, deadlines, onExpired);
+    }
+
+    public Pipeline newPipeline() {
+        return new Pipeline(pipelineDepth);
+    }
+
+    public boolean isParallelPipelining() {
+        return parallelPipelining;
+    }
+
+    public void collect(Pipeline pipeline, HttpRequestParser parser, HttpRequest first) {
+        pipeline.clear();
+        accept(pipeline, first, parser.lastParseNanos());
+        while (pipeline.isKeepAlive() && !pipeline.isFull() && parser.hasBufferedData()) {
+            HttpRequest next;
+            try {
+                next = parser.tryParse();
+            } catch (HttpParseException e) {
+                pipeline.fail(parseErrorResponse(e));
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            accept(pipeline, next, parser.lastParseNanos());
+        }
+    }
+
+    private void accept(Pipeline pipeline, HttpRequest request, long parseNanos) {
+        int index = pipeline.add(request, isKeepAlive(request, pipeline.served() + 1));
+        RouteMatch match = resolve(request, parseNanos);
+        AdmissionController.Permit permit = admit(match);
+        if (permit == null) {
+            pipeline.respond(index, reject(request));
+            pipeline.close();
+        } else {
+            pipeline.admit(index, match, permit);
+        }
+    }
+
+    public void execute(Pipeline pipeline, int index) {
+        if (!pipeline.needsHandling(index)) {
+            return;
+        }
+        HttpRequest request = pipeline.request(index);
+        RouteMatch match = pipeline.match(index);
+        if (match == null || !match.isAsync()) {
+            pipeline.respond(index, handleRequest(request, match, pipeline.permit(index)));
+            return;
+        }
+
+        pipeline.retain(index);
+        CompletableFuture<HttpResponse> response = handleRequestAsync(request, match, pipeline.permit(index));
+        if (response.isDone()) {
+            pipeline.respond(index, response.join());
+        } else {
+            pipeline.defer(index, response.thenAccept(completed -> pipeline.respond(index, completed)));
+        }
+    }
+
+    public void reject(Pipeline pipeline, int index) {
+        pipeline.permit(index).drop();
+        pipeline.respond(index, reject(pipeline.request(index)));
+        pipeline.close();
+    }
+
+    public void fail(Pipeline pipeline, int index, Throwable error) {
+        logger.error("Handler failed for {}: {}", pipeline.request(index).getPath(), error.toString());
+        pipeline.permit(index).release();
+        pipeline.respond(index, HttpResponse.internalServerError());
+        pipeline.close();
+    }
+
+    public void abort(Pipeline pipeline, int index, Throwable error) {
+        for (int i = index + 1; i < pipeline.size(); i++) {
+            if (pipeline.needsHandling(i)) {
+                pipeline.permit(i).abort();
+            }
+        }
+        fail(pipeline, index, error);
+        pipeline.fail(index, HttpResponse.internalServerError());
+    }
+
+    public void reject(Pipeline pipeline, int index, Bulkhead bulkhead) {
+        logger.debug("Bulkhead {} is saturated, shedding {}", bulkhead.getName(), pipeline.request(index).getPath());
+        pipeline.permit(index).abort();
+        pipeline.respond(index, shed(pipeline.request(index)));
+    }
+
+    public Bulkhead bulkhead(Pipeline pipeline, int index) {
+        RouteMatch match = pipeline.match(index);
+        return match != null && match.bulkhead() != null ? bulkheads.get(match.bulkhead()) : null;
+    }
+
+    private boolean hasBulkheads(Pipeline pipeline) {
+        if (bulkheads.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < pipeline.size(); i++) {
+            if (pipeline.needsHandling(i) && bulkhead(pipeline, i) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void execute(Pipeline pipeline, ThreadPoolManager pool) {
+        int size = pipeline.size();
+        boolean parallel = parallelPipelining && pool != null && pipeline.pending() > 1;
+        if (!parallel && !hasBulkheads(pipeline)) {
+            for (int i = 0; i < size; i++) {
+                execute(pipeline, i);
+            }
+            return;
+        }
+
+        FutureTask<?>[] tasks = new FutureTask<?>[size];
+        if (parallel) {
+            for (int i = 1; i < size; i++) {
+                tasks[i] = submit(pipeline, i, pool);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            FutureTask<?> task = parallel && i > 0 ? tasks[i] : submit(pipeline, i, null);
+            if (task == null) {
+                execute(pipeline, i);
+                continue;
+            }
+            if (bulkhead(pipeline, i) == null) {
+                task.run();
+            }
+            await(task, pipeline, i);
+        }
+    }
+
+    private FutureTask<?> submit(Pipeline pipeline, int index, ThreadPoolManager pool) {
+        if (!pipeline.needsHandling(index)) {
+            return null;
+        }
+        Bulkhead bulkhead = bulkhead(pipeline, index);
+        if (bulkhead == null && pool == null) {
+            return null;
+        }
+        FutureTask<?> task = new FutureTask<>(() -> execute(pipeline, index), null);
+        if (bulkhead == null) {
+            if (!pool.offerTask(task)) {
+                return null;
+            }
+        } else if (!bulkhead.submit(task)) {
+            reject(pipeline, index, bulkhead);
+            return null;
+        }
+        return task;
+    }
+
+    private void await(FutureTask<?> task, Pipeline pipeline, int index) {
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            logger.error("Pipelined request failed: {}", e.getCause().getMessage());
+            pipeline.respond(index, HttpResponse.internalServerError());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pipeline.respond(index, HttpResponse.serviceUnavailable());
+            pipeline.close();
+        }
+    }
+
+    private void awaitDeferred(Pipeline pipeline) {
+        CompletableFuture<Void> deferred = pipeline.deferred();
+        if (deferred == null) {
+            return;
+        }
+        try {
+            deferred.get();
+        } catch (ExecutionException e) {
+            logger.error("Deferred request failed: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < pipeline.size(); i++) {
+                if (pipeline.needsHandling(i)) {
+                    pipeline.fail(i, HttpResponse.serviceUnavailable());
+                    return;
+                }
+            }
+        }
+    }
+
+    public HttpRequestParser createParser(InputStream input) {
+        return new HttpRequestParser(input, maxRequestBodySize, requestBodySpillThreshold, recycleRequests,
+                maxRequestLine, maxHeaderCount, maxHeadSize);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public HttpResponse handleRequest(HttpRequest request) {
+        return handleRequest(request, resolve(request, -1), AdmissionController.Permit.UNLIMITED);
+    }
+
+    public RouteMatch resolve(HttpRequest request, long parseNanos) {
         logRequest(request);
 
+        long started = System.nanoTime();
         RouteMatch match = router.resolve(request.getMethod(), request.getPath());
+        long routed = System.nanoTime();
 
         setRequestPathVariables(match, request);
+        RouteMetrics routeMetrics = metrics.route(match != null && match.route() != null
+                ? match.route()
+                : Metrics.UNMATCHED_ROUTE);
+        request.setRoute(routeMetrics.route());
+        if (parseNanos >= 0) {
+            routeMetrics.record(RouteMetrics.Phase.PARSE, parseNanos);
+        }
+        routeMetrics.record(RouteMetrics.Phase.ROUTE, routed - started);
+        return match;
+    }
 
-        HttpResponse response = getResponse(match, request);
+    public AdmissionController.Permit admit(RouteMatch match) {
+        if (admission == null) {
+            return AdmissionController.Permit.UNLIMITED;
+        }
+        return admission.tryAcquire(match != null ? match.priority() : Priority.NORMAL);
+    }
 
-        writeToOutputStream(conn, response);
+    public HttpResponse reject(HttpRequest request) {
+        logger.debug("Concurrency limit reached, shedding {} {}", request.getMethod(), request.getPath());
+        return shed(request);
     }
 
-    private void setRequestPathVariables(RouteMatch match, HttpRequest request) {
-        if (match != null && !match.pathParams().isEmpty()) {
-            request.setPathParams(match.pathParams());
-            logger.debug("Path params: " + match.pathParams());
+    private static void expire(AdmissionController.Permit permit, RouteMatch match) {
+        if (match != null && match.bulkhead() != null) {
+            permit.abort();
+        } else {
+            permit.drop();
+        }
+    }
+
+    private HttpResponse shed(HttpRequest request) {
+        request.bodyPublisher().ifPresent(this::releaseBody);
+        HttpResponse response = overloadedResponse();
+        routeMetrics(request).recordStatus(response.getStatusCode());
+        return response;
+    }
+
+    public HttpResponse handleRequest(HttpRequest request, RouteMatch match, AdmissionController.Permit permit) {
+        if (permit.isExpired()) {
+            expire(permit, match);
+            logger.debug("Queue wait deadline exceeded, dropping {} {}", request.getMethod(), request.getPath());
+            return reject(request);
+        }
+
+        RouteMetrics routeMetrics = routeMetrics(request);
+        long started = System.nanoTime();
+        try {
+            HttpResponse response = intercept(request, match);
+            if (response == null) {
+                response = match != null && match.cachePolicy() != null && responseCache != null
+                        ? responseCache.get(request, match.cachePolicy(), () -> getResponse(match, request))
+                        : getResponse(match, request);
+                long handlerDeadline = deadlines.nanos(Deadline.HANDLER);
+                if (handlerDeadline > 0 && System.nanoTime() - started > handlerDeadline) {
+                    metrics.timedOut(Deadline.HANDLER);
+                    logger.error("Handler for {} overran its {}ms deadline", request.getPath(), handlerDeadline / 1_000_000);
+                }
+            }
+            return complete(request, response, routeMetrics, started);
+        } finally {
+            permit.release();
+            request.bodyPublisher().ifPresent(this::releaseBody);
         }
     }
 
-    private void writeToOutputStream(Socket conn, HttpResponse response) {
+    public CompletableFuture<HttpResponse> handleRequestAsync(HttpRequest request, RouteMatch match,
+                                                              AdmissionController.Permit permit) {
+        if (permit.isExpired()) {
+            expire(permit, match);
+            logger.debug("Queue wait deadline exceeded, dropping {} {}", request.getMethod(), request.getPath());
+            return CompletableFuture.completedFuture(reject(request));
+        }
+
+        RouteMetrics routeMetrics = routeMetrics(request);
+        long started = System.nanoTime();
+        CompletableFuture<HttpResponse> response;
         try {
-            HttpResponseWriter.write(conn.getOutputStream(), response);
-        } catch (IOException e) {
-            logger.error("Failed to write response: " + e.getMessage());
-            throw new RuntimeException(e);
+            HttpResponse intercepted = intercept(request, match);
+            if (intercepted != null) {
+                response = CompletableFuture.completedFuture(intercepted);
+            } else {
+                response = match.cachePolicy() != null && responseCache != null
+                        ? responseCache.getAsync(request, match.cachePolicy(), () -> getResponseAsync(match, request))
+                        : getResponseAsync(match, request);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Async handler failed for {}: {}", request.getPath(), e.getMessage());
+            response = CompletableFuture.completedFuture(HttpResponse.internalServerError());
+        }
+        return response.handle((result, error) -> {
+            try {
+                if (error != null) {
+                    logger.error("Async handler failed for {}: {}", request.getPath(), error.getMessage());
+                    result = HttpResponse.internalServerError();
+                }
+                if (result != HttpResponse.gatewayTimeout()) {
+                    request.bodyPublisher().ifPresent(this::releaseBody);
+                }
+                return complete(request, result, routeMetrics, started);
+            } finally {
+                permit.release();
+            }
+        });
+    }
+
+    private HttpResponse intercept(HttpRequest request, RouteMatch match) {
+        for (Interceptor interceptor : interceptors) {
+            HttpResponse response;
+            try {
+                response = interceptor.intercept(request, match);
+            } catch (RuntimeException e) {
+                logger.error("Interceptor failed for {}: {}", request.getPath(), e.getMessage());
+                return HttpResponse.internalServerError();
+            }
+            if (response != null) {
+                logger.debug("Interceptor answered {} -> {}", request.getPath(), response.getStatusCode());
+                return response;
+            }
+        }
+        return null;
+    }
+
+    private HttpResponse complete(HttpRequest request, HttpResponse response, RouteMetrics routeMetrics, long started) {
+        if (compressor != null) {
+            response = compressor.compress(request, response);
+        }
+        routeMetrics.record(RouteMetrics.Phase.HANDLE, System.nanoTime() - started);
+        routeMetrics.recordStatus(response.getStatusCode());
+        return response;
+    }
+
+    public HttpResponse overloadedResponse() {
+        return admission != null ? admission.overloadedResponse() : HttpResponse.serviceUnavailable();
+    }
+
+    public boolean isStale(long enqueuedAt) {
+        return admission != null && admission.isStale(enqueuedAt);
+    }
+
+    public void recordWrite(Pipeline pipeline, int from, int to, long nanos) {
+        for (int i = from; i < to; i++) {
+            HttpRequest request = pipeline.request(i);
+            if (request != null) {
+                recordWrite(request, nanos);
+            }
+        }
+    }
+
+    public void recordWrite(HttpRequest request, long nanos) {
+        if (request.getRoute() != null) {
+            metrics.route(request.getRoute()).record(RouteMetrics.Phase.WRITE, nanos);
+        }
+    }
+
+    private RouteMetrics routeMetrics(HttpRequest request) {
+        return metrics.route(request.getRoute() != null ? request.getRoute() : Metrics.UNMATCHED_ROUTE);
+    }
+
+    public HttpResponse parseErrorResponse(HttpParseException e) {
+        logger.error("Failed to parse request: {}", e.getMessage());
+        metrics.parseError();
+        return switch (e.getStatusCode()) {
+            case 413 -> HttpResponse.payloadTooLarge(e.getMessage());
+            case 414 -> HttpResponse.uriTooLong(e.getMessage());
+            case 431 -> HttpResponse.headerFieldsTooLarge(e.getMessage());
+            case 500 -> HttpResponse.internalServerError();
+            case 501 -> HttpResponse.notImplemented(e.getMessage());
+            default -> HttpResponse.badRequest("Malformed request");
+        };
+    }
+
+    public void beginDrain() {
+        draining = true;
+        for (Socket conn : idleConnections) {
+            try {
+                conn.close();
+            } catch (IOException e) {
+                logger.debug("Error closing idle connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    public boolean isKeepAlive(HttpRequest request, int served) {
+        if (draining || served >= maxRequestsPerConnection) {
+            return false;
+        }
+        String connection = request.getHeader("Connection");
+        if ("HTTP/1.0".equals(request.getVersion())) {
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+        return !"close".equalsIgnoreCase(connection);
+    }
+
+    private void setRequestPathVariables(RouteMatch match, HttpRequest request) {
+        if (match != null && !match.pathParams().isEmpty()) {
+            request.setPathParams(match.pathParams());
+            logger.debug("Path params: {}", match.pathParams());
         }
     }
 
@@ -53,31 +564,166 @@ public class CoreRequestHandler {
         if (match == null) {
             response = HttpResponse.notFound("Path not found with method: " + request.getMethod() + " " + request.getPath());
         } else {
-            response = match.handler().handle(request);
+            try {
+                response = match.handler().handle(request);
+            } catch (RuntimeException e) {
+                logger.error("Handler failed for {}: {}", request.getPath(), e.getMessage());
+                response = HttpResponse.internalServerError();
+            }
+        }
+        logger.info("{} {} -> {}", request.getMethod(), request.getPath(), response.getStatusCode());
+        return response;
+    }
+
+    private CompletableFuture<HttpResponse> getResponseAsync(RouteMatch match, HttpRequest request) {
+        CompletionStage<HttpResponse> stage;
+        try {
+            stage = ((AsyncRouteHandler) match.handler()).handleAsync(request);
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+        stage.whenComplete((result, error) -> {
+            request.bodyPublisher().ifPresent(this::releaseBody);
+            if (!response.isDone()) {
+                response.complete(getResponse(request, result, error));
+            }
+        });
+        long timeout = match.timeout() != null ? match.timeout().toNanos() : deadlines.nanos(Deadline.HANDLER);
+        if (timeout == 0 || response.isDone()) {
+            return response;
         }
-        logger.info(request.getMethod() + " " + request.getPath() + " -> " + response.getStatusCode());
+        CompletionStage<HttpResponse> handler = stage;
+        TimerWheel.Timer timer = timerWheel.schedule(() -> response.complete(null), timeout);
+        response.whenComplete((result, error) -> timer.disarm());
+        return response.thenApply(result -> result != null ? result : timedOut(request, handler, timeout));
+    }
+
+    private HttpResponse getResponse(HttpRequest request, HttpResponse response, Throwable error) {
+        if (error != null || response == null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            logger.error("Handler failed for {}: {}", request.getPath(),
+                    cause != null ? cause.getMessage() : "completed without a response");
+            response = HttpResponse.internalServerError();
+        }
+        logger.info("{} {} -> {}", request.getMethod(), request.getPath(), response.getStatusCode());
         return response;
     }
 
+    private HttpResponse timedOut(HttpRequest request, CompletionStage<HttpResponse> handler, long timeoutNanos) {
+        metrics.timedOut(Deadline.HANDLER);
+        logger.error("Handler for {} timed out after {}ms", request.getPath(), timeoutNanos / 1_000_000);
+        if (handler instanceof Future<?> future) {
+            future.cancel(false);
+        }
+        return HttpResponse.gatewayTimeout();
+    }
+
     private void logRequest(HttpRequest request) {
-        logger.info(request.getMethod() + " " + request.getUri());
+        logger.info("{} {}", request.getMethod(), request.getTarget());
 
-        logger.debug("Headers: " + formatHeaders(request.getHeaders()));
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        logger.debug("Headers: {}", formatHeaders(request.getHeaders()));
         if (!request.getQueryParams().isEmpty()) {
-            logger.debug("Query params: " + request.getQueryParams());
+            logger.debug("Query params: {}", request.getQueryParams());
         }
-        request.bodyPublisher().ifPresent(bp -> logger.debug("Body: " + bp));
+        request.bodyPublisher().ifPresent(bp -> logger.debug("Body: {}", bp));
     }
 
-    private HttpRequest parseRequest(Socket conn) {
-        HttpRequest request;
+    private HttpRequest parseRequest(HttpRequestParser parser, Socket conn, HttpResponseWriter writer,
+                                     ConnectionDeadline deadline) throws IOException {
         try {
-            request = HttpRequestParser.parse(conn.getInputStream());
+            if (!parser.hasBufferedData() && !parser.fill()) {
+                return null;
+            }
+            deadline.start(Deadline.HEADER_READ);
+            while (true) {
+                HttpRequest request = parser.tryParse();
+                if (request != null) {
+                    deadline.clear();
+                    return request;
+                }
+                if (parser.isReadingBody() && deadline.current() == Deadline.HEADER_READ) {
+                    deadline.start(Deadline.BODY_READ);
+                }
+                if (!parser.fill()) {
+                    if (!parser.hasBufferedData()) {
+                        return null;
+                    }
+                    throw new HttpParseException("Unexpected end of stream");
+                }
+            }
+        } catch (HttpParseException e) {
+            deadline.clear();
+            send(conn, writer, parseErrorResponse(e), false, deadline);
+            return null;
+        }
+    }
+
+    private void close(Socket conn) {
+        try {
+            conn.close();
         } catch (IOException e) {
-            logger.error("Failed to parse request: " + e.getMessage());
-            throw new RuntimeException(e);
+            logger.debug("Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    private void releaseBody(HttpRequest.BodyPublisher body) {
+        try {
+            body.release();
+        } catch (RuntimeException e) {
+            logger.error("Failed to release request body: {}", e.getMessage());
+        }
+    }
+
+    private boolean send(Socket conn, HttpResponseWriter writer, Pipeline pipeline, ConnectionDeadline deadline)
+            throws IOException {
+        HttpResponse[] responses = pipeline.responses();
+        int size = pipeline.size();
+        for (int from = 0; from < size; ) {
+            int to = writer.batchEnd(responses, from, size);
+            boolean chunked = pipeline.acceptsChunked(from);
+            boolean keepAlive = (to < size || pipeline.isKeepAlive() && !draining)
+                    && !HttpResponseWriter.isCloseDelimited(responses[from], chunked);
+            long writeStarted = System.nanoTime();
+            boolean sentKeepAlive = send(conn, writer, responses, from, to, keepAlive, chunked, deadline);
+            recordWrite(pipeline, from, to, System.nanoTime() - writeStarted);
+            if (!sentKeepAlive) {
+                return false;
+            }
+            from = to;
+        }
+        return true;
+    }
+
+    private boolean send(Socket conn, HttpResponseWriter writer, HttpResponse response, boolean keepAlive,
+                         ConnectionDeadline deadline) throws IOException {
+        return send(conn, writer, new HttpResponse[]{response}, 0, 1, keepAlive, true, deadline);
+    }
+
+    private boolean send(Socket conn, HttpResponseWriter writer, HttpResponse[] responses, int from, int to,
+                         boolean keepAlive, boolean chunked, ConnectionDeadline deadline) throws IOException {
+        ByteBuffer[] parts;
+        try {
+            parts = writer.encode(responses, from, to, keepAlive, chunked);
+        } catch (IOException e) {
+            logger.error("Failed to open response body: {}", e.getMessage());
+            parts = writer.encode(HttpResponse.internalServerError(), false);
+            keepAlive = false;
+        }
+
+        deadline.start(Deadline.WRITE);
+        SocketChannel channel = conn.getChannel();
+        if (channel != null) {
+            writer.write(channel, parts);
+        } else {
+            writer.write(conn.getOutputStream(), parts);
         }
-        return request;
+        deadline.clear();
+        return keepAlive;
     }
 
     private String formatHeaders(Map<String, String> headers) {
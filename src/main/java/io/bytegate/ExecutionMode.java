@@ -0,0 +1,6 @@
+package io.bytegate;
+
+public enum ExecutionMode {
+    THREAD_POOL,
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,9 @@
+package io.bytegate;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+
+@FunctionalInterface
+public interface Interceptor {
+    HttpResponse intercept(HttpRequest request, RouteMatch match);
+}
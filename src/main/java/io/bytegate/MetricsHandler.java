@@ -0,0 +1,24 @@
+package io.bytegate;
+
+import io.bytegate.metrics.Metrics;
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+
+public class MetricsHandler implements RouteHandler {
+
+    private final Metrics metrics;
+
+    public MetricsHandler(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        return HttpResponse.newBuilder()
+                .status(200, "OK")
+                .header("Content-Type", Metrics.CONTENT_TYPE)
+                .header("Cache-Control", "no-store")
+                .body(metrics.scrape())
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package io.bytegate;
+
+import io.bytegate.admission.AdmissionController;
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.util.HttpRequestParser;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+public final class Pipeline {
+
+    public static final int DEFAULT_DEPTH = 16;
+
+    private final HttpRequest[] requests;
+    private final RouteMatch[] matches;
+    private final AdmissionController.Permit[] permits;
+    private final HttpResponse[] responses;
+    private final CompletableFuture<?>[] deferred;
+    private final boolean[] retained;
+    private int size;
+    private int served;
+    private boolean keepAlive = true;
+
+    Pipeline(int depth) {
+        this.requests = new HttpRequest[depth + 1];
+        this.matches = new RouteMatch[depth + 1];
+        this.permits = new AdmissionController.Permit[depth + 1];
+        this.responses = new HttpResponse[depth + 1];
+        this.deferred = new CompletableFuture<?>[depth + 1];
+        this.retained = new boolean[depth + 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int served() {
+        return served;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public HttpRequest request(int index) {
+        return requests[index];
+    }
+
+    public boolean acceptsChunked(int index) {
+        HttpRequest request = requests[index];
+        return request == null || !"HTTP/1.0".equals(request.getVersion());
+    }
+
+    public HttpResponse[] responses() {
+        return responses;
+    }
+
+    public boolean needsHandling(int index) {
+        return requests[index] != null && responses[index] == null;
+    }
+
+    public CompletableFuture<Void> deferred() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (deferred[i] != null) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        CompletableFuture<?>[] completions = new CompletableFuture<?>[count];
+        for (int i = 0, j = 0; i < size; i++) {
+            if (deferred[i] != null) {
+                completions[j++] = deferred[i];
+            }
+        }
+        return CompletableFuture.allOf(completions);
+    }
+
+    public int pending() {
+        int pending = 0;
+        for (int i = 0; i < size; i++) {
+            if (needsHandling(i)) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    public void fail(HttpResponse response) {
+        fail(size, response);
+    }
+
+    public void fail(int index, HttpResponse response) {
+        for (int i = index + 1; i < size; i++) {
+            requests[i] = null;
+            responses[i] = null;
+            deferred[i] = null;
+            retained[i] = false;
+        }
+        requests[index] = null;
+        responses[index] = response;
+        size = index + 1;
+        keepAlive = false;
+    }
+
+    public void recycle(HttpRequestParser parser) {
+        for (int i = 0; i < size; i++) {
+            if (requests[i] != null && !retained[i]) {
+                parser.recycle(requests[i]);
+            }
+        }
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(requests, 0, size, null);
+        Arrays.fill(matches, 0, size, null);
+        Arrays.fill(permits, 0, size, null);
+        Arrays.fill(responses, 0, size, null);
+        Arrays.fill(deferred, 0, size, null);
+        Arrays.fill(retained, 0, size, false);
+        size = 0;
+    }
+
+    boolean isFull() {
+        return size >= requests.length - 1;
+    }
+
+    int add(HttpRequest request, boolean keepAlive) {
+        served++;
+        this.keepAlive = keepAlive;
+        requests[size] = request;
+        return size++;
+    }
+
+    void admit(int index, RouteMatch match, AdmissionController.Permit permit) {
+        matches[index] = match;
+        permits[index] = permit;
+    }
+
+    void respond(int index, HttpResponse response) {
+        responses[index] = response;
+    }
+
+    void defer(int index, CompletableFuture<?> completion) {
+        deferred[index] = completion;
+    }
+
+    void retain(int index) {
+        retained[index] = true;
+    }
+
+    void close() {
+        keepAlive = false;
+    }
+
+    RouteMatch match(int index) {
+        return matches[index];
+    }
+
+    AdmissionController.Permit permit(int index) {
+        return permits[index];
+    }
+}
@@ -1,6 +1,11 @@
 package io.bytegate;
 
+import io.bytegate.admission.Priority;
+import io.bytegate.cache.CachePolicy;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -9,59 +14,288 @@ import java.util.Map;
 
 public class RequestRouter {
 
-    private final Map<String, RouteHandler> exactRoutes = new HashMap<>();
-    private final List<ParameterizedRoute> parameterizedRoutes = new ArrayList<>();
+    private static final String WILDCARD = "*";
+
+    private final Map<String, Node> trees = new HashMap<>();
+    private final Map<String, String> bulkheads = new HashMap<>();
 
     public void register(String method, String path, RouteHandler handler) {
-        String key = method + ":" + path;
-        if (path.contains("{")) {
-            parameterizedRoutes.add(new ParameterizedRoute(key, path.split("/"), handler));
-        } else {
-            exactRoutes.put(key, handler);
+        Node node = node(method, path);
+        node.handler = handler;
+        node.updateStaticMatch();
+    }
+
+    public void register(String method, String path, RouteHandler handler, CachePolicy cachePolicy) {
+        Node node = node(method, path);
+        node.handler = handler;
+        node.cachePolicy = cachePolicy;
+        node.updateStaticMatch();
+    }
+
+    public void registerAsync(String method, String path, AsyncRouteHandler handler) {
+        register(method, path, handler);
+    }
+
+    public void timeout(String method, String path, Duration timeout) {
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException("Route timeout must be positive: " + timeout);
+        }
+        Node node = registered(method, path);
+        if (timeout != null && !(node.handler instanceof AsyncRouteHandler)) {
+            throw new IllegalArgumentException("Route timeouts require an asynchronous handler: " + method + " " + path);
         }
+        node.timeout = timeout;
+        node.updateStaticMatch();
     }
 
-    public RouteMatch resolve(String method, String path) {
-        RouteHandler exact = exactRoutes.get(method + ":" + path);
-        if (exact != null) {
-            return new RouteMatch(exact, Collections.emptyMap());
+    public void cache(String method, String path, CachePolicy cachePolicy) {
+        Node node = registered(method, path);
+        node.cachePolicy = cachePolicy;
+        node.updateStaticMatch();
+    }
+
+    public void priority(String method, String path, Priority priority) {
+        Node node = registered(method, path);
+        node.priority = priority;
+        node.updateStaticMatch();
+    }
+
+    public void bulkhead(String method, String path, String bulkhead) {
+        if (bulkhead != null && bulkhead.isBlank()) {
+            throw new IllegalArgumentException("Bulkhead name must not be blank: " + method + " " + path);
         }
+        Node node = registered(method, path);
+        node.bulkhead = bulkhead;
+        node.updateStaticMatch();
+        if (bulkhead != null) {
+            bulkheads.put(node.route, bulkhead);
+        } else {
+            bulkheads.remove(node.route);
+        }
+    }
 
-        String[] requestSegments = path.split("/");
-        for (ParameterizedRoute route : parameterizedRoutes) {
-            if (!route.key.startsWith(method + ":")) {
-                continue;
+    public Collection<String> bulkheads() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    private Node registered(String method, String path) {
+        checkPath(path);
+        Node node = trees.get(method);
+        String[] segments = path.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length && node != null; i++) {
+            String segment = segments[i];
+            if (segment.equals(WILDCARD) || (segment.startsWith("{*") && segment.endsWith("}"))) {
+                node = i == segments.length - 1 ? node.wildcardChild : null;
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                node = node.paramChild;
+            } else {
+                node = node.findStaticChild(segment, 0, segment.length());
             }
+        }
+        if (node == null || node.handler == null) {
+            throw new IllegalArgumentException("No route registered for " + method + " " + path);
+        }
+        return node;
+    }
+
+    private static void checkPath(String path) {
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("Route path must start with '/': " + path);
+        }
+    }
+
+    private Node node(String method, String path) {
+        checkPath(path);
+
+        Node node = trees.computeIfAbsent(method, m -> new Node(""));
+        String[] segments = path.substring(1).split("/", -1);
+        List<String> paramNames = new ArrayList<>();
+        List<Integer> paramIndexes = new ArrayList<>();
+        boolean wildcard = false;
 
-            Map<String, String> params = match(route.segments, requestSegments);
-            if (params != null) {
-                return new RouteMatch(route.handler, params);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals(WILDCARD) || (segment.startsWith("{*") && segment.endsWith("}"))) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("Wildcard must be the last path segment: " + path);
+                }
+                if (node.wildcardChild == null) {
+                    node.wildcardChild = new Node(segment);
+                }
+                node = node.wildcardChild;
+                wildcard = true;
+                paramNames.add(segment.equals(WILDCARD) ? WILDCARD : segment.substring(2, segment.length() - 1));
+                paramIndexes.add(i);
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (node.paramChild == null) {
+                    node.paramChild = new Node(segment);
+                }
+                node = node.paramChild;
+                paramNames.add(segment.substring(1, segment.length() - 1));
+                paramIndexes.add(i);
+            } else {
+                node = node.staticChild(segment);
             }
         }
 
-        return null;
+        node.paramNames = paramNames.toArray(new String[0]);
+        node.paramIndexes = paramIndexes.stream().mapToInt(Integer::intValue).toArray();
+        node.wildcardTerminal = wildcard;
+        node.route = method + " " + path;
+        return node;
     }
 
-    private Map<String, String> match(String[] patternSegments, String[] requestSegments) {
-        if (patternSegments.length != requestSegments.length) {
+    public RouteMatch resolve(String method, String path) {
+        Node root = trees.get(method);
+        if (root == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+
+        Node node = find(root, path, 1);
+        if (node == null) {
             return null;
         }
+        if (node.staticMatch != null) {
+            return node.staticMatch;
+        }
+        return new RouteMatch(node.handler, extractParams(node, path), node.cachePolicy, node.route, node.priority,
+                node.timeout, node.bulkhead);
+    }
+
+    private Node find(Node node, String path, int pos) {
+        int segmentEnd = path.indexOf('/', pos);
+        if (segmentEnd < 0) {
+            segmentEnd = path.length();
+        }
+        boolean last = segmentEnd == path.length();
 
+        Node child = node.findStaticChild(path, pos, segmentEnd);
+        if (child != null) {
+            Node found = last ? terminal(child) : find(child, path, segmentEnd + 1);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        if (node.paramChild != null && segmentEnd > pos) {
+            Node found = last ? terminal(node.paramChild) : find(node.paramChild, path, segmentEnd + 1);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        return terminal(node.wildcardChild);
+    }
+
+    private Node terminal(Node node) {
+        return node != null && node.handler != null ? node : null;
+    }
+
+    private Map<String, String> extractParams(Node node, String path) {
         Map<String, String> params = new LinkedHashMap<>();
-        for (int i = 0; i < patternSegments.length; i++) {
-            String pattern = patternSegments[i];
-            String actual = requestSegments[i];
-
-            if (pattern.startsWith("{") && pattern.endsWith("}")) {
-                String paramName = pattern.substring(1, pattern.length() - 1);
-                params.put(paramName, actual);
-            } else if (!pattern.equals(actual)) {
-                return null;
+        int segment = 0;
+        int pos = 1;
+        for (int i = 0; i < node.paramIndexes.length; i++) {
+            while (segment < node.paramIndexes[i]) {
+                pos = path.indexOf('/', pos) + 1;
+                segment++;
             }
+            boolean wildcard = i == node.paramIndexes.length - 1 && node.wildcardTerminal;
+            int end = wildcard ? -1 : path.indexOf('/', pos);
+            params.put(node.paramNames[i], path.substring(pos, end < 0 ? path.length() : end));
         }
         return params;
     }
 
-    private record ParameterizedRoute(String key, String[] segments, RouteHandler handler) {
+    private static final class Node {
+
+        private static final int HASHED_CHILDREN_THRESHOLD = 8;
+
+        private final String segment;
+        private Node[] staticChildren = new Node[0];
+        private Node[] hashedChildren;
+        private Node paramChild;
+        private Node wildcardChild;
+
+        private RouteHandler handler;
+        private String[] paramNames;
+        private int[] paramIndexes;
+        private boolean wildcardTerminal;
+        private String route;
+        private CachePolicy cachePolicy;
+        private Priority priority = Priority.NORMAL;
+        private Duration timeout;
+        private String bulkhead;
+        private RouteMatch staticMatch;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private void updateStaticMatch() {
+            staticMatch = handler != null && paramNames.length == 0
+                    ? new RouteMatch(handler, Collections.emptyMap(), cachePolicy, route, priority, timeout, bulkhead)
+                    : null;
+        }
+
+        private Node staticChild(String segment) {
+            for (Node child : staticChildren) {
+                if (child.segment.equals(segment)) {
+                    return child;
+                }
+            }
+            Node child = new Node(segment);
+            staticChildren = Arrays.copyOf(staticChildren, staticChildren.length + 1);
+            staticChildren[staticChildren.length - 1] = child;
+            rehash();
+            return child;
+        }
+
+        private Node findStaticChild(String path, int from, int to) {
+            int length = to - from;
+            if (hashedChildren == null) {
+                for (Node child : staticChildren) {
+                    if (child.segment.length() == length && path.regionMatches(from, child.segment, 0, length)) {
+                        return child;
+                    }
+                }
+                return null;
+            }
+
+            int mask = hashedChildren.length - 1;
+            for (int i = hash(path, from, to) & mask; ; i = (i + 1) & mask) {
+                Node child = hashedChildren[i];
+                if (child == null) {
+                    return null;
+                }
+                if (child.segment.length() == length && path.regionMatches(from, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+        }
+
+        private void rehash() {
+            if (staticChildren.length <= HASHED_CHILDREN_THRESHOLD) {
+                return;
+            }
+            Node[] table = new Node[Integer.highestOneBit(staticChildren.length * 4)];
+            int mask = table.length - 1;
+            for (Node child : staticChildren) {
+                int i = hash(child.segment, 0, child.segment.length()) & mask;
+                while (table[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = child;
+            }
+            hashedChildren = table;
+        }
+
+        private static int hash(String s, int from, int to) {
+            int h = 0;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + s.charAt(i);
+            }
+            return h ^ (h >>> 16);
+        }
     }
 }
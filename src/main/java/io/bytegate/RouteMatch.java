@@ -1,12 +1,40 @@
 package io.bytegate;
 
+import io.bytegate.admission.Priority;
+import io.bytegate.cache.CachePolicy;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 
-public record RouteMatch(RouteHandler handler, Map<String, String> pathParams) {
+public record RouteMatch(RouteHandler handler, Map<String, String> pathParams, CachePolicy cachePolicy, String route,
+                         Priority priority, Duration timeout, String bulkhead) {
 
-    public RouteMatch(RouteHandler handler, Map<String, String> pathParams) {
+    public RouteMatch(RouteHandler handler, Map<String, String> pathParams, CachePolicy cachePolicy, String route,
+                      Priority priority, Duration timeout, String bulkhead) {
         this.handler = handler;
         this.pathParams = Collections.unmodifiableMap(pathParams);
+        this.cachePolicy = cachePolicy;
+        this.route = route;
+        this.priority = priority;
+        this.timeout = timeout;
+        this.bulkhead = bulkhead;
+    }
+
+    public RouteMatch(RouteHandler handler, Map<String, String> pathParams, CachePolicy cachePolicy, String route,
+                      Priority priority, Duration timeout) {
+        this(handler, pathParams, cachePolicy, route, priority, timeout, null);
+    }
+
+    public RouteMatch(RouteHandler handler, Map<String, String> pathParams, CachePolicy cachePolicy, String route,
+                      Priority priority) {
+        this(handler, pathParams, cachePolicy, route, priority, null);
+    }
+
+    public RouteMatch(RouteHandler handler, Map<String, String> pathParams) {
+        this(handler, pathParams, null, null, Priority.NORMAL);
+    }
+
+    public boolean isAsync() {
+        return handler instanceof AsyncRouteHandler;
     }
 }
@@ -0,0 +1,316 @@
+package io.bytegate;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class StaticFileHandler implements RouteHandler {
+
+    public static final String PATH_PARAM = "path";
+    public static final long DEFAULT_CACHE_CAPACITY = 32L * 1024 * 1024;
+    public static final int DEFAULT_MAX_CACHED_FILE_SIZE = 64 * 1024;
+    public static final long DEFAULT_MAX_MAPPED_FILE_SIZE = 4L * 1024 * 1024;
+
+    private static final String INDEX_FILE = "index.html";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html"),
+            Map.entry("htm", "text/html"),
+            Map.entry("css", "text/css"),
+            Map.entry("js", "text/javascript"),
+            Map.entry("mjs", "text/javascript"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("txt", "text/plain"),
+            Map.entry("csv", "text/csv"),
+            Map.entry("xml", "application/xml"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("wasm", "application/wasm"),
+            Map.entry("pdf", "application/pdf"),
+            Map.entry("zip", "application/zip"));
+
+    private final Path root;
+    private final long cacheCapacity;
+    private final int maxCachedFileSize;
+    private final long maxMappedFileSize;
+    private final LinkedHashMap<Path, FileEntry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    public StaticFileHandler(Path root) {
+        this(root, DEFAULT_CACHE_CAPACITY, DEFAULT_MAX_CACHED_FILE_SIZE, DEFAULT_MAX_MAPPED_FILE_SIZE);
+    }
+
+    public StaticFileHandler(Path root, long cacheCapacity, int maxCachedFileSize, long maxMappedFileSize) {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Static file root is not a directory: " + root);
+        }
+        if (cacheCapacity < 0 || maxCachedFileSize < 0 || maxMappedFileSize < 0) {
+            throw new IllegalArgumentException("Static file cache limits must not be negative");
+        }
+        this.root = root.toAbsolutePath().normalize();
+        this.cacheCapacity = cacheCapacity;
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.maxMappedFileSize = maxMappedFileSize;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        Path file = resolve(request.getPathParam(PATH_PARAM));
+        if (file == null) {
+            return HttpResponse.notFound();
+        }
+
+        FileEntry entry;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.isDirectory()) {
+                file = file.resolve(INDEX_FILE);
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            }
+            if (!attributes.isRegularFile()) {
+                return HttpResponse.notFound();
+            }
+            entry = lookup(file, attributes);
+        } catch (IOException e) {
+            return HttpResponse.notFound();
+        }
+
+        if (isNotModified(request, entry)) {
+            return entry.headers(HttpResponse.newBuilder().status(304, "Not Modified")).build();
+        }
+
+        String range = request.getHeader("Range");
+        if (range != null && ifRangeMatches(request.getHeader("If-Range"), entry)) {
+            long[] bounds = parseRange(range, entry.size);
+            if (bounds == UNSATISFIABLE) {
+                return HttpResponse.newBuilder()
+                        .status(416, "Range Not Satisfiable")
+                        .header("Content-Range", "bytes */" + entry.size)
+                        .build();
+            }
+            if (bounds != null) {
+                return partial(entry, bounds[0], bounds[1]);
+            }
+        }
+        return entry.fullResponse != null ? entry.fullResponse : entry.response(0, entry.size).build();
+    }
+
+    private Path resolve(String relative) {
+        if (relative == null || relative.indexOf('\0') >= 0) {
+            return null;
+        }
+        try {
+            Path file = root.resolve(relative).normalize();
+            return file.startsWith(root) ? file : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private FileEntry lookup(Path file, BasicFileAttributes attributes) throws IOException {
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        synchronized (cache) {
+            FileEntry cached = cache.get(file);
+            if (cached != null && cached.size == size && cached.modified == modified) {
+                return cached;
+            }
+        }
+
+        FileEntry entry = new FileEntry(file, size, modified, contentType(file), load(file, size));
+        if (entry.content != null) {
+            synchronized (cache) {
+                FileEntry previous = cache.put(file, entry);
+                if (previous != null && previous.content != null) {
+                    cachedBytes -= previous.size;
+                }
+                cachedBytes += size;
+                evict();
+            }
+        }
+        return entry;
+    }
+
+    private ByteBuffer load(Path file, long size) throws IOException {
+        if (size > maxMappedFileSize || size > cacheCapacity) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (size > maxCachedFileSize) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer content = ByteBuffer.allocateDirect((int) size);
+            while (content.hasRemaining()) {
+                if (channel.read(content) < 0) {
+                    return null;
+                }
+            }
+            return content.flip();
+        }
+    }
+
+    private void evict() {
+        Iterator<FileEntry> entries = cache.values().iterator();
+        while (cachedBytes > cacheCapacity && entries.hasNext()) {
+            cachedBytes -= entries.next().size;
+            entries.remove();
+        }
+    }
+
+    private HttpResponse partial(FileEntry entry, long first, long last) {
+        return entry.response(first, last - first + 1)
+                .status(206, "Partial Content")
+                .header("Content-Range", "bytes " + first + "-" + last + "/" + entry.size)
+                .build();
+    }
+
+    private static boolean isNotModified(HttpRequest request, FileEntry entry) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(entry.etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Instant since = parseDate(request.getHeader("If-Modified-Since"));
+        return since != null && entry.modified / 1000 <= since.getEpochSecond();
+    }
+
+    private static boolean ifRangeMatches(String ifRange, FileEntry entry) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(entry.etag);
+        }
+        return value.equals(entry.lastModified);
+    }
+
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long first = Long.parseLong(spec.substring(0, dash));
+            if (first < 0) {
+                return null;
+            }
+            if (first >= size) {
+                return UNSATISFIABLE;
+            }
+            long last = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (last < first) {
+                return null;
+            }
+            return new long[]{first, Math.min(last, size - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Instant parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        return CONTENT_TYPES.getOrDefault(name.substring(dot + 1).toLowerCase(Locale.ROOT), DEFAULT_CONTENT_TYPE);
+    }
+
+    private static final class FileEntry {
+
+        private final Path file;
+        private final long size;
+        private final long modified;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private final ByteBuffer content;
+        private final HttpResponse fullResponse;
+
+        private FileEntry(Path file, long size, long modified, String contentType, ByteBuffer content) {
+            this.file = file;
+            this.size = size;
+            this.modified = modified;
+            this.contentType = contentType;
+            this.etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(modified) + "\"";
+            this.lastModified = HTTP_DATE.format(Instant.ofEpochMilli(modified));
+            this.content = content;
+            this.fullResponse = content != null ? response(0, size).cacheable(true).build() : null;
+        }
+
+        private HttpResponse.Builder headers(HttpResponse.Builder builder) {
+            return builder
+                    .header("ETag", etag)
+                    .header("Last-Modified", lastModified);
+        }
+
+        private HttpResponse.Builder response(long position, long length) {
+            HttpResponse.Builder builder = headers(HttpResponse.newBuilder())
+                    .header("Content-Type", contentType)
+                    .header("Accept-Ranges", "bytes");
+            if (content != null) {
+                return builder.body(content.slice((int) position, (int) length));
+            }
+            return builder.body(file, position, length);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package io.bytegate;
 
+import java.time.Duration;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ThreadPoolManager {
 
@@ -14,34 +19,99 @@ public class ThreadPoolManager {
     public static final int DEFAULT_QUEUE_SIZE = 100;
     public static final int MAX_POOL_SIZE = 30;
     public static final long KEEP_ALIVE_TIME = 10L;
+    public static final int DEFAULT_MAX_CONCURRENCY = 10_000;
 
     private final ExecutorService executorService;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final LongAdder rejected = new LongAdder();
 
-    private ThreadPoolManager(int poolSize) {
-        this.executorService = new ThreadPoolExecutor(
-                Math.min(poolSize, DEFAULT_POOL_SIZE),
-                MAX_POOL_SIZE, KEEP_ALIVE_TIME,
-                TimeUnit.SECONDS,
-                new ArrayBlockingQueue<>(DEFAULT_QUEUE_SIZE),
-                initThreadFactory()
-        );
-
+    private ThreadPoolManager(ExecutorService executorService, Semaphore permits, int maxConcurrency) {
+        this.executorService = executorService;
+        this.permits = permits;
+        this.maxConcurrency = maxConcurrency;
     }
 
-    private static ThreadFactory initThreadFactory() {
+    private static ThreadFactory initThreadFactory(String namePrefix) {
         AtomicInteger counter = new AtomicInteger(1);
         return r -> {
             Thread t = new Thread(r);
-            t.setName("bytegate-worker-" + counter.getAndIncrement());
+            t.setName(namePrefix + counter.getAndIncrement());
             return t;
         };
     }
 
     public static ThreadPoolManager create(int poolSize) {
-        return new ThreadPoolManager(poolSize);
+        return create(poolSize, "bytegate-worker-");
+    }
+
+    public static ThreadPoolManager create(int poolSize, String namePrefix) {
+        return create(poolSize, MAX_POOL_SIZE, DEFAULT_QUEUE_SIZE, namePrefix);
+    }
+
+    public static ThreadPoolManager create(int poolSize, int maxPoolSize, int queueSize, String namePrefix) {
+        ExecutorService executorService = new ThreadPoolExecutor(
+                Math.min(Math.min(poolSize, DEFAULT_POOL_SIZE), maxPoolSize),
+                maxPoolSize, KEEP_ALIVE_TIME,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                initThreadFactory(namePrefix)
+        );
+        return new ThreadPoolManager(executorService, null, 0);
+    }
+
+    public static ThreadPoolManager createBounded(int threads, int queueSize, String namePrefix) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads, KEEP_ALIVE_TIME,
+                TimeUnit.SECONDS,
+                queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>(),
+                initThreadFactory(namePrefix)
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return new ThreadPoolManager(executor, null, 0);
+    }
+
+    public static ThreadPoolManager createVirtual(int maxConcurrency) {
+        return createVirtual(maxConcurrency, "bytegate-vworker-");
+    }
+
+    public static ThreadPoolManager createVirtual(int maxConcurrency, String namePrefix) {
+        ThreadFactory threadFactory = Thread.ofVirtual().name(namePrefix, 1).factory();
+        return new ThreadPoolManager(Executors.newThreadPerTaskExecutor(threadFactory), new Semaphore(maxConcurrency),
+                maxConcurrency);
     }
 
     public boolean submitTask(Runnable task) {
+        if (offerTask(task)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public boolean offerTask(Runnable task) {
+        if (permits == null) {
+            return submit(task);
+        }
+
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        boolean submitted = submit(() -> {
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+        if (!submitted) {
+            permits.release();
+        }
+        return submitted;
+    }
+
+    private boolean submit(Runnable task) {
         try {
             executorService.submit(task);
             return true;
@@ -50,16 +120,33 @@ public class ThreadPoolManager {
         }
     }
 
+    public int getQueueDepth() {
+        return executorService instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+    }
+
+    public int getActiveCount() {
+        if (executorService instanceof ThreadPoolExecutor pool) {
+            return pool.getActiveCount();
+        }
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
     public void close() {
+        close(Duration.ofSeconds(10));
+    }
+
+    public void close(Duration timeout) {
         executorService.shutdown();
         try {
-            if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
+            if (!executorService.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
                 executorService.shutdownNow();
             }
         } catch (InterruptedException e) {
             executorService.shutdownNow();
         }
     }
-
-
 }
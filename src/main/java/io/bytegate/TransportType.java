@@ -0,0 +1,6 @@
+package io.bytegate;
+
+public enum TransportType {
+    BLOCKING,
+    NIO
+}
@@ -1,66 +1,267 @@
 package io.bytegate;
 
+import io.bytegate.admission.AdmissionController;
+import io.bytegate.admission.Priority;
+import io.bytegate.cache.CachePolicy;
+import io.bytegate.cache.ResponseCache;
+import io.bytegate.compression.ResponseCompressor;
 import io.bytegate.log.LogLevel;
+import io.bytegate.log.LogOverflowPolicy;
 import io.bytegate.log.Logger;
+import io.bytegate.metrics.Metrics;
 import io.bytegate.model.HttpResponse;
+import io.bytegate.nio.NioServer;
+import io.bytegate.ratelimit.RateLimiter;
+import io.bytegate.timeout.DeadlinePolicy;
+import io.bytegate.timeout.TimerWheel;
+import io.bytegate.tls.TlsConfig;
+import io.bytegate.tls.TlsContext;
+import io.bytegate.util.HttpRequestParser;
 import io.bytegate.util.HttpResponseWriter;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
 
 
 public class WebServer {
 
     private final int port;
     private final int threadPoolSize;
+    private final Duration keepAliveTimeout;
+    private final int maxRequestsPerConnection;
+    private final TransportType transport;
+    private final int eventLoopThreads;
+    private final int acceptors;
+    private final ExecutionMode executionMode;
+    private final int maxConcurrentRequests;
+    private final long maxRequestBodySize;
+    private final int requestBodySpillThreshold;
+    private final int maxRequestLineLength;
+    private final int maxHeaderCount;
+    private final int maxHeaderSize;
+    private final DeadlinePolicy deadlines;
+    private final ResponseCache responseCache;
+    private final ResponseCompressor compressor;
+    private final Metrics metrics;
+    private final AdmissionController admission;
+    private final Map<String, Bulkhead> bulkheads;
+    private final List<Interceptor> interceptors;
+    private final TlsContext tls;
+    private final int pipelineDepth;
+    private final boolean parallelPipelining;
+    private final boolean recycleRequests;
+    private final Duration drainTimeout;
+    private final boolean reusePort;
     private final RequestRouter router;
     private final Logger logger;
+    private final AtomicBoolean stopped = new AtomicBoolean();
 
-    private ServerSocket serverSocket;
-    private ThreadPoolManager poolManager;
+    private ServerSocket[] serverSockets;
+    private NioServer nioServer;
+    private TimerWheel timerWheel;
+    private ThreadPoolManager[] partitions;
     private CoreRequestHandler requestHandler;
 
-    private WebServer(int port, int threadPoolSize, RequestRouter router, Logger logger) {
-        this.port = port;
-        this.threadPoolSize = threadPoolSize;
-        this.router = router;
-        this.logger = logger;
+    private WebServer(Builder builder) {
+        this.port = builder.port;
+        this.threadPoolSize = builder.threadPoolSize;
+        this.keepAliveTimeout = builder.keepAliveTimeout;
+        this.maxRequestsPerConnection = builder.maxRequestsPerConnection;
+        this.transport = builder.transport;
+        this.eventLoopThreads = builder.eventLoopThreads;
+        this.acceptors = builder.acceptors;
+        this.executionMode = builder.executionMode;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.maxRequestBodySize = builder.maxRequestBodySize;
+        this.requestBodySpillThreshold = builder.requestBodySpillThreshold;
+        this.maxRequestLineLength = builder.maxRequestLineLength;
+        this.maxHeaderCount = builder.maxHeaderCount;
+        this.maxHeaderSize = builder.maxHeaderSize;
+        this.deadlines = builder.deadlines;
+        this.responseCache = builder.responseCache;
+        this.compressor = builder.compressor;
+        this.metrics = builder.metrics;
+        this.admission = builder.admission;
+        this.bulkheads = Collections.unmodifiableMap(new LinkedHashMap<>(builder.bulkheads));
+        this.interceptors = List.copyOf(builder.interceptors);
+        this.tls = builder.tls != null ? new TlsContext(builder.tls) : null;
+        this.pipelineDepth = builder.pipelineDepth;
+        this.parallelPipelining = builder.parallelPipelining;
+        this.recycleRequests = builder.recycleRequests;
+        this.drainTimeout = builder.drainTimeout;
+        this.reusePort = builder.reusePort;
+        this.router = builder.router;
+        this.logger = new Logger(builder.logLevel, builder.logBufferSize, builder.logOverflowPolicy);
     }
 
     public void start() {
         try {
-            serverSocket = new ServerSocket(port);
-            poolManager = ThreadPoolManager.create(threadPoolSize);
-            requestHandler = new CoreRequestHandler(router, logger);
+            partitions = createPartitions();
+            timerWheel = new TimerWheel(e -> logger.error("Timer task failed: {}", e.getMessage()));
+            timerWheel.start();
+            for (Interceptor interceptor : interceptors) {
+                if (interceptor instanceof RateLimiter rateLimiter) {
+                    rateLimiter.scheduleSweep(timerWheel);
+                }
+            }
+            requestHandler = new CoreRequestHandler(router, logger, keepAliveTimeout, maxRequestsPerConnection,
+                    maxRequestBodySize, requestBodySpillThreshold, responseCache, compressor, metrics, admission,
+                    pipelineDepth, parallelPipelining, recycleRequests, timerWheel, deadlines, maxRequestLineLength,
+                    maxHeaderCount, maxHeaderSize, bulkheads, interceptors);
+            registerMetrics();
 
+            if (transport == TransportType.NIO) {
+                nioServer = new NioServer(port, reusePort, eventLoopThreads, partitions, requestHandler, keepAliveTimeout, logger,
+                        tls);
+                nioServer.start();
+            } else {
+                serverSockets = new ServerSocket[acceptors];
+                for (int i = 0; i < acceptors; i++) {
+                    serverSockets[i] = NioServer.openServerChannel(port, reusePort || acceptors > 1, 0, logger).socket();
+                }
+                if (acceptors > 1) {
+                    logger.info("Server running on port {} with {} acceptors...", port, acceptors);
+                } else {
+                    logger.info("Server running on port {}...", port);
+                }
+                for (int i = 0; i < acceptors; i++) {
+                    startAcceptLoop(i);
+                }
+            }
             registerShutdownHook();
-            startAcceptLoop();
         } catch (IOException e) {
-            logger.error("Failed to start server: " + e.getMessage());
+            logger.error("Failed to start server: {}", e.getMessage());
+        }
+    }
+
+    private ThreadPoolManager[] createPartitions() {
+        ThreadPoolManager[] pools = new ThreadPoolManager[acceptors];
+        for (int i = 0; i < acceptors; i++) {
+            String suffix = acceptors == 1 ? "-" : "-" + (i + 1) + "-";
+            pools[i] = executionMode == ExecutionMode.VIRTUAL_THREADS
+                    ? ThreadPoolManager.createVirtual(Math.max(1, maxConcurrentRequests / acceptors), "bytegate-vworker" + suffix)
+                    : ThreadPoolManager.create(Math.max(1, threadPoolSize / acceptors),
+                            Math.max(1, ThreadPoolManager.MAX_POOL_SIZE / acceptors),
+                            Math.max(1, ThreadPoolManager.DEFAULT_QUEUE_SIZE / acceptors), "bytegate-worker" + suffix);
+        }
+        return pools;
+    }
+
+    private long sumPartitions(ToLongFunction<ThreadPoolManager> figure) {
+        long sum = 0;
+        for (ThreadPoolManager partition : partitions) {
+            sum += figure.applyAsLong(partition);
         }
+        return sum;
     }
 
-    private void startAcceptLoop() {
+    private void registerMetrics() {
+        metrics.gauge("bytegate_executor_queue_depth", "Tasks waiting for a worker.",
+                () -> sumPartitions(ThreadPoolManager::getQueueDepth));
+        metrics.gauge("bytegate_executor_active", "Workers running a task.",
+                () -> sumPartitions(ThreadPoolManager::getActiveCount));
+        metrics.counter("bytegate_executor_rejected_total", "Tasks rejected because the executor was full.",
+                () -> sumPartitions(ThreadPoolManager::getRejectedCount));
+        if (admission != null) {
+            metrics.gauge("bytegate_admission_limit", "Adaptive concurrency limit.", admission::getLimit);
+            metrics.gauge("bytegate_admission_in_flight", "Admitted requests not yet completed.", admission::getInFlight);
+            metrics.counter("bytegate_admission_expired_total", "Requests dropped after exceeding the queue wait deadline.",
+                    admission::getExpired);
+            for (Priority priority : Priority.values()) {
+                metrics.counter("bytegate_admission_rejected_total", "Requests shed by the concurrency limit.",
+                        "priority", priority.name().toLowerCase(Locale.ROOT), () -> admission.getRejected(priority));
+            }
+        }
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            metrics.gauge("bytegate_bulkhead_limit", "Concurrent requests allowed by the bulkhead.", "bulkhead",
+                    bulkhead.getName(), bulkhead::getMaxConcurrent);
+        }
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            metrics.gauge("bytegate_bulkhead_active", "Requests running in the bulkhead.", "bulkhead",
+                    bulkhead.getName(), bulkhead::getActiveCount);
+        }
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            metrics.gauge("bytegate_bulkhead_queue_depth", "Requests waiting for a bulkhead slot.", "bulkhead",
+                    bulkhead.getName(), bulkhead::getQueueDepth);
+        }
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            metrics.counter("bytegate_bulkhead_rejected_total", "Requests shed because the bulkhead was saturated.",
+                    "bulkhead", bulkhead.getName(), bulkhead::getRejectedCount);
+        }
+        List<RateLimiter> rateLimiters = new ArrayList<>();
+        for (Interceptor interceptor : interceptors) {
+            if (interceptor instanceof RateLimiter rateLimiter) {
+                rateLimiters.add(rateLimiter);
+            }
+        }
+        if (!rateLimiters.isEmpty()) {
+            metrics.counter("bytegate_rate_limited_total", "Requests answered with 429 by a rate limiter.",
+                    () -> rateLimiters.stream().mapToLong(RateLimiter::getLimited).sum());
+            metrics.gauge("bytegate_rate_limit_keys", "Token buckets held by rate limiters.",
+                    () -> rateLimiters.stream().mapToLong(RateLimiter::size).sum());
+            metrics.counter("bytegate_rate_limit_evictions_total", "Full token buckets evicted as idle or near capacity.",
+                    () -> rateLimiters.stream().mapToLong(RateLimiter::getEvicted).sum());
+            metrics.counter("bytegate_rate_limit_key_overflows_total", "New keys rejected at the key limit.",
+                    () -> rateLimiters.stream().mapToLong(RateLimiter::getOverflowed).sum());
+        }
+        if (tls != null) {
+            metrics.counter("bytegate_tls_handshakes_total", "Completed TLS handshakes.", tls::getHandshakes);
+            metrics.counter("bytegate_tls_resumed_handshakes_total", "TLS handshakes that resumed an earlier session.",
+                    tls::getResumedHandshakes);
+            metrics.counter("bytegate_tls_handshake_failures_total", "TLS handshakes that failed or were abandoned.",
+                    tls::getHandshakeFailures);
+        }
+        if (responseCache != null) {
+            metrics.counter("bytegate_response_cache_hits_total", "Response cache hits.", responseCache::getHits);
+            metrics.counter("bytegate_response_cache_misses_total", "Response cache misses.", responseCache::getMisses);
+            metrics.counter("bytegate_response_cache_coalesced_total", "Misses served by a concurrent in-flight request.",
+                    responseCache::getCoalesced);
+            metrics.counter("bytegate_response_cache_evictions_total", "Entries evicted by size or TTL.",
+                    responseCache::getEvictions);
+            metrics.gauge("bytegate_response_cache_entries", "Entries in the response cache.", responseCache::size);
+            metrics.gauge("bytegate_response_cache_bytes", "Approximate bytes held by the response cache.",
+                    responseCache::sizeInBytes);
+        }
+    }
+
+    private void startAcceptLoop(int acceptor) {
+        ServerSocket serverSocket = serverSockets[acceptor];
+        ThreadPoolManager partition = partitions[acceptor];
         Thread acceptThread = new Thread(() -> {
-            logger.info("Server running on port " + port + "...");
             while (!serverSocket.isClosed()) {
                 try {
                     Socket conn = serverSocket.accept();
-                    dispatch(conn);
+                    dispatch(conn, partition);
                 } catch (IOException e) {
                     if (!serverSocket.isClosed()) {
-                        logger.error("Error accepting connection: " + e.getMessage());
+                        logger.error("Error accepting connection: {}", e.getMessage());
                     }
                 }
             }
-        }, "bytegate-accept");
+        }, acceptors == 1 ? "bytegate-accept" : "bytegate-accept-" + (acceptor + 1));
         acceptThread.start();
     }
 
-    private void dispatch(Socket conn) {
-        boolean accepted = poolManager.submitTask(() -> {
+    private void dispatch(Socket conn, ThreadPoolManager partition) {
+        long enqueuedAt = System.nanoTime();
+        boolean accepted = partition.submitTask(() -> {
+            if (requestHandler.isStale(enqueuedAt)) {
+                logger.debug("Queue wait deadline exceeded, rejecting connection with 503");
+                rejectConnection(conn);
+                return;
+            }
             try {
-                requestHandler.handleRequest(conn);
+                requestHandler.handleConnection(conn, partition);
             } finally {
                 closeQuietly(conn);
             }
@@ -74,9 +275,9 @@ public class WebServer {
     private void rejectConnection(Socket conn) {
         logger.error("Thread pool exhausted, rejecting request with 503");
         try {
-            HttpResponseWriter.write(conn.getOutputStream(), HttpResponse.serviceUnavailable());
+            HttpResponseWriter.write(conn.getOutputStream(), requestHandler.overloadedResponse());
         } catch (IOException e) {
-            logger.error("Failed to send 503 response: " + e.getMessage());
+            logger.error("Failed to send 503 response: {}", e.getMessage());
         } finally {
             closeQuietly(conn);
         }
@@ -86,7 +287,7 @@ public class WebServer {
         try {
             conn.close();
         } catch (IOException e) {
-            logger.error("Error closing connection: " + e.getMessage());
+            logger.error("Error closing connection: {}", e.getMessage());
         }
     }
 
@@ -94,25 +295,116 @@ public class WebServer {
         Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "bytegate-shutdown"));
     }
 
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public Bulkhead getBulkhead(String name) {
+        return bulkheads.get(name);
+    }
+
     public void stop() {
-        logger.info("Shutting down...");
-        if (serverSocket != null) {
-            try {
-                serverSocket.close();
-            } catch (IOException e) {
-                logger.error("Error closing server socket: " + e.getMessage());
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("Shutting down, draining connections for up to {}ms...", drainTimeout.toMillis());
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        if (serverSockets != null) {
+            for (ServerSocket serverSocket : serverSockets) {
+                closeServerSocket(serverSocket);
             }
         }
-        if (poolManager != null) {
-            poolManager.close();
+        if (nioServer != null) {
+            nioServer.stopAccepting();
+        }
+        if (requestHandler != null) {
+            requestHandler.beginDrain();
+        }
+        if (nioServer != null) {
+            nioServer.drain();
+        }
+        awaitDrain(deadline);
+        if (partitions != null) {
+            for (ThreadPoolManager partition : partitions) {
+                partition.close(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+            }
+        }
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            bulkhead.close(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        }
+        if (nioServer != null) {
+            nioServer.close();
+        }
+        if (timerWheel != null) {
+            timerWheel.close();
+        }
+        if (compressor != null) {
+            compressor.close();
         }
         logger.info("Server stopped");
+        logger.close();
+    }
+
+    private void closeServerSocket(ServerSocket serverSocket) {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.error("Error closing server socket: {}", e.getMessage());
+        }
+    }
+
+    private void awaitDrain(long deadline) {
+        try {
+            while (metrics.activeConnections() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long remaining = metrics.activeConnections();
+        if (remaining > 0) {
+            logger.info("Drain deadline reached with {} connections still open", remaining);
+        }
     }
 
     public static class Builder {
         private int port = 8080;
         private int threadPoolSize = 10;
+        private Duration keepAliveTimeout = Duration.ofSeconds(5);
+        private int maxRequestsPerConnection = 100;
+        private TransportType transport = TransportType.BLOCKING;
+        private int eventLoopThreads = Runtime.getRuntime().availableProcessors();
+        private int acceptors = 1;
+        private ExecutionMode executionMode = ExecutionMode.THREAD_POOL;
+        private int maxConcurrentRequests = ThreadPoolManager.DEFAULT_MAX_CONCURRENCY;
+        private long maxRequestBodySize = HttpRequestParser.DEFAULT_MAX_BODY_SIZE;
+        private int requestBodySpillThreshold = HttpRequestParser.DEFAULT_SPILL_THRESHOLD;
+        private int maxRequestLineLength = HttpRequestParser.DEFAULT_MAX_REQUEST_LINE;
+        private int maxHeaderCount = HttpRequestParser.DEFAULT_MAX_HEADER_COUNT;
+        private int maxHeaderSize = HttpRequestParser.MAX_HEAD_SIZE;
+        private DeadlinePolicy deadlines = DeadlinePolicy.DEFAULT;
+        private ResponseCache responseCache = new ResponseCache();
+        private ResponseCompressor compressor;
+        private final Metrics metrics = new Metrics();
+        private AdmissionController admission;
+        private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+        private final List<Interceptor> interceptors = new ArrayList<>();
+        private TlsConfig tls;
+        private int pipelineDepth = Pipeline.DEFAULT_DEPTH;
+        private boolean parallelPipelining;
+        private boolean recycleRequests;
+        private Duration drainTimeout = Duration.ofSeconds(10);
+        private boolean reusePort;
         private LogLevel logLevel = LogLevel.INFO;
+        private int logBufferSize = Logger.DEFAULT_BUFFER_SIZE;
+        private LogOverflowPolicy logOverflowPolicy = LogOverflowPolicy.DROP;
         private final RequestRouter router = new RequestRouter();
 
         public Builder port(int port) {
@@ -125,11 +417,237 @@ public class WebServer {
             return this;
         }
 
+        public Builder keepAliveTimeout(Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Keep-alive timeout must be positive: " + timeout);
+            }
+            this.keepAliveTimeout = timeout;
+            return this;
+        }
+
+        public Builder maxRequestsPerConnection(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new IllegalArgumentException("Max requests per connection must be at least 1: " + maxRequests);
+            }
+            this.maxRequestsPerConnection = maxRequests;
+            return this;
+        }
+
+        public Builder transport(TransportType transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        public Builder eventLoopThreads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Event loop threads must be at least 1: " + threads);
+            }
+            this.eventLoopThreads = threads;
+            return this;
+        }
+
+        public Builder acceptors(int acceptors) {
+            if (acceptors < 1) {
+                throw new IllegalArgumentException("Acceptors must be at least 1: " + acceptors);
+            }
+            this.acceptors = acceptors;
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            if (maxConcurrentRequests < 1) {
+                throw new IllegalArgumentException("Max concurrent requests must be at least 1: " + maxConcurrentRequests);
+            }
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        public Builder maxRequestBodySize(long maxBytes) {
+            if (maxBytes < 0) {
+                throw new IllegalArgumentException("Max request body size must not be negative: " + maxBytes);
+            }
+            this.maxRequestBodySize = maxBytes;
+            return this;
+        }
+
+        public Builder requestBodySpillThreshold(int bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("Request body spill threshold must not be negative: " + bytes);
+            }
+            this.requestBodySpillThreshold = bytes;
+            return this;
+        }
+
+        public Builder maxRequestLineLength(int bytes) {
+            if (bytes < 16) {
+                throw new IllegalArgumentException("Max request line length must be at least 16: " + bytes);
+            }
+            this.maxRequestLineLength = bytes;
+            return this;
+        }
+
+        public Builder maxHeaderCount(int count) {
+            if (count < 1) {
+                throw new IllegalArgumentException("Max header count must be at least 1: " + count);
+            }
+            this.maxHeaderCount = count;
+            return this;
+        }
+
+        public Builder maxHeaderSize(int bytes) {
+            if (bytes < 256) {
+                throw new IllegalArgumentException("Max header size must be at least 256: " + bytes);
+            }
+            this.maxHeaderSize = bytes;
+            return this;
+        }
+
+        public Builder headerReadTimeout(Duration timeout) {
+            this.deadlines = deadlines.withHeaderRead(timeout);
+            return this;
+        }
+
+        public Builder bodyReadTimeout(Duration timeout) {
+            this.deadlines = deadlines.withBodyRead(timeout);
+            return this;
+        }
+
+        public Builder handlerTimeout(Duration timeout) {
+            this.deadlines = deadlines.withHandler(timeout);
+            return this;
+        }
+
+        public Builder writeTimeout(Duration timeout) {
+            this.deadlines = deadlines.withWrite(timeout);
+            return this;
+        }
+
+        public Builder responseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        public Builder cache(String method, String path, CachePolicy policy) {
+            router.cache(method, path, policy);
+            return this;
+        }
+
+        public Builder compression() {
+            return compression(new ResponseCompressor());
+        }
+
+        public Builder compression(ResponseCompressor compressor) {
+            this.compressor = compressor;
+            return this;
+        }
+
+        public Builder admissionControl() {
+            return admissionControl(new AdmissionController());
+        }
+
+        public Builder admissionControl(AdmissionController admission) {
+            this.admission = admission;
+            return this;
+        }
+
+        public Builder priority(String method, String path, Priority priority) {
+            router.priority(method, path, priority);
+            return this;
+        }
+
+        public Builder bulkhead(String name, int maxConcurrent, int maxQueue) {
+            return bulkhead(new Bulkhead(name, maxConcurrent, maxQueue));
+        }
+
+        public Builder bulkhead(Bulkhead bulkhead) {
+            if (bulkheads.putIfAbsent(bulkhead.getName(), bulkhead) != null) {
+                throw new IllegalArgumentException("Duplicate bulkhead: " + bulkhead.getName());
+            }
+            return this;
+        }
+
+        public Builder bulkhead(String method, String path, String bulkhead) {
+            router.bulkhead(method, path, bulkhead);
+            return this;
+        }
+
+        public Builder interceptor(Interceptor interceptor) {
+            interceptors.add(interceptor);
+            return this;
+        }
+
+        public Builder rateLimit(RateLimiter rateLimiter) {
+            return interceptor(rateLimiter);
+        }
+
+        public Builder tls(TlsConfig config) {
+            this.tls = config;
+            return this;
+        }
+
+        public Builder metrics() {
+            return metrics("/metrics");
+        }
+
+        public Builder metrics(String path) {
+            router.register("GET", path, new MetricsHandler(metrics));
+            return this;
+        }
+
+        public Builder pipelining(int maxDepth) {
+            if (maxDepth < 1) {
+                throw new IllegalArgumentException("Pipeline depth must be at least 1: " + maxDepth);
+            }
+            this.pipelineDepth = maxDepth;
+            return this;
+        }
+
+        public Builder parallelPipelining(boolean parallel) {
+            this.parallelPipelining = parallel;
+            return this;
+        }
+
+        public Builder recycleRequests(boolean recycle) {
+            this.recycleRequests = recycle;
+            return this;
+        }
+
+        public Builder drainTimeout(Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Drain timeout must not be negative: " + timeout);
+            }
+            this.drainTimeout = timeout;
+            return this;
+        }
+
+        public Builder reusePort(boolean reusePort) {
+            this.reusePort = reusePort;
+            return this;
+        }
+
         public Builder logLevel(LogLevel logLevel) {
             this.logLevel = logLevel;
             return this;
         }
 
+        public Builder logBufferSize(int size) {
+            if (size < 2) {
+                throw new IllegalArgumentException("Log buffer size must be at least 2: " + size);
+            }
+            this.logBufferSize = size;
+            return this;
+        }
+
+        public Builder logOverflowPolicy(LogOverflowPolicy policy) {
+            this.logOverflowPolicy = policy;
+            return this;
+        }
+
         @Deprecated
         public Builder route(String method, String path, RouteHandler handler) {
             router.register(method, path, handler);
@@ -141,14 +659,37 @@ public class WebServer {
             return this;
         }
 
+        public Builder staticFiles(String urlPrefix, Path root) {
+            return staticFiles(urlPrefix, new StaticFileHandler(root));
+        }
+
+        public Builder staticFiles(String urlPrefix, StaticFileHandler handler) {
+            if (!urlPrefix.startsWith("/")) {
+                throw new IllegalArgumentException("Static file prefix must start with '/': " + urlPrefix);
+            }
+            String prefix = urlPrefix.endsWith("/") ? urlPrefix.substring(0, urlPrefix.length() - 1) : urlPrefix;
+            router.register("GET", prefix + "/{*" + StaticFileHandler.PATH_PARAM + "}", handler);
+            return this;
+        }
+
         public Builder withDefaultParameters() {
             this.port = 8080;
             this.threadPoolSize = 10;
+            this.keepAliveTimeout = Duration.ofSeconds(5);
+            this.maxRequestsPerConnection = 100;
             return this;
         }
 
         public WebServer build() {
-            return new WebServer(port, threadPoolSize, router, new Logger(logLevel));
+            for (String bulkhead : router.bulkheads()) {
+                if (!bulkheads.containsKey(bulkhead)) {
+                    throw new IllegalArgumentException("Route assigned to undefined bulkhead: " + bulkhead);
+                }
+            }
+            if (tls != null && transport != TransportType.NIO) {
+                throw new IllegalArgumentException("TLS requires the NIO transport");
+            }
+            return new WebServer(this);
         }
     }
 
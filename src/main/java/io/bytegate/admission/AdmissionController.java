@@ -0,0 +1,140 @@
+package io.bytegate.admission;
+
+import io.bytegate.model.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AdmissionController {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 4;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+    public static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofMillis(200);
+    public static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final GradientLimiter limiter;
+    private final long maxQueueWaitNanos;
+    private final HttpResponse overloaded;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder[] rejected = new LongAdder[Priority.values().length];
+    private final LongAdder expired = new LongAdder();
+
+    public AdmissionController() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_MAX_QUEUE_WAIT, DEFAULT_RETRY_AFTER);
+    }
+
+    public AdmissionController(int initialLimit, int minLimit, int maxLimit, Duration maxQueueWait, Duration retryAfter) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Admission limits must satisfy 1 <= min <= initial <= max: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        if (maxQueueWait.isNegative() || maxQueueWait.isZero()) {
+            throw new IllegalArgumentException("Max queue wait must be positive: " + maxQueueWait);
+        }
+        if (retryAfter.isNegative()) {
+            throw new IllegalArgumentException("Retry-After must not be negative: " + retryAfter);
+        }
+        this.limiter = new GradientLimiter(initialLimit, minLimit, maxLimit);
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.overloaded = HttpResponse.newBuilder()
+                .status(503, "Service Unavailable")
+                .header("Content-Type", "text/plain")
+                .header("Retry-After", Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000)))
+                .body("503 Service Unavailable")
+                .build();
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    public Permit tryAcquire(Priority priority) {
+        int limit = Math.max(1, (int) (limiter.limit() * priority.share()));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected[priority.ordinal()].increment();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return new Permit(this, System.nanoTime());
+    }
+
+    public boolean isStale(long enqueuedAt) {
+        return System.nanoTime() - enqueuedAt > maxQueueWaitNanos;
+    }
+
+    public HttpResponse overloadedResponse() {
+        return overloaded;
+    }
+
+    public int getLimit() {
+        return limiter.limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected(Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    private void abort() {
+        inFlight.decrementAndGet();
+    }
+
+    private void complete(long acquiredAt, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (dropped) {
+            expired.increment();
+        }
+        limiter.onSample(System.nanoTime() - acquiredAt, current, dropped);
+    }
+
+    public static final class Permit {
+
+        public static final Permit UNLIMITED = new Permit(null, 0);
+
+        private final AdmissionController controller;
+        private final long acquiredAt;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(AdmissionController controller, long acquiredAt) {
+            this.controller = controller;
+            this.acquiredAt = acquiredAt;
+        }
+
+        public boolean isExpired() {
+            return controller != null && controller.isStale(acquiredAt);
+        }
+
+        public void release() {
+            complete(false);
+        }
+
+        public void drop() {
+            complete(true);
+        }
+
+        public void abort() {
+            if (controller == null || !completed.compareAndSet(false, true)) {
+                return;
+            }
+            controller.abort();
+        }
+
+        private void complete(boolean dropped) {
+            if (controller == null || !completed.compareAndSet(false, true)) {
+                return;
+            }
+            controller.complete(acquiredAt, dropped);
+        }
+    }
+}
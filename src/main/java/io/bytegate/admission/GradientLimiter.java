@@ -0,0 +1,63 @@
+package io.bytegate.admission;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+final class GradientLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double DROP_DECREASE = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicReference<State> state;
+
+    GradientLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.state = new AtomicReference<>(new State(initialLimit, 0, 0));
+    }
+
+    int limit() {
+        return (int) state.get().limit();
+    }
+
+    void onSample(long rttNanos, int inFlight, boolean dropped) {
+        while (true) {
+            State current = state.get();
+            if (state.compareAndSet(current, next(current, rttNanos, inFlight, dropped))) {
+                return;
+            }
+        }
+    }
+
+    private State next(State current, long rttNanos, int inFlight, boolean dropped) {
+        double limit = current.limit();
+        if (dropped) {
+            return new State(clamp(limit * DROP_DECREASE), current.shortRtt(), current.longRtt());
+        }
+        if (current.longRtt() == 0) {
+            return new State(limit, rttNanos, rttNanos);
+        }
+        double shortRtt = current.shortRtt() + (rttNanos - current.shortRtt()) / SHORT_WINDOW;
+        double longRtt = current.longRtt() + (rttNanos - current.longRtt()) / LONG_WINDOW;
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlight < limit / 2) {
+            return new State(limit, shortRtt, longRtt);
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        return new State(clamp(limit * (1 - SMOOTHING) + target * SMOOTHING), shortRtt, longRtt);
+    }
+
+    private double clamp(double next) {
+        return Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    private record State(double limit, double shortRtt, double longRtt) {
+    }
+}
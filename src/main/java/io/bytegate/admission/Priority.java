@@ -0,0 +1,17 @@
+package io.bytegate.admission;
+
+public enum Priority {
+    HIGH(1.0),
+    NORMAL(0.9),
+    LOW(0.7);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    double share() {
+        return share;
+    }
+}
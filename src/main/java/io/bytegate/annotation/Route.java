@@ -1,5 +1,6 @@
 package io.bytegate.annotation;
 
+import io.bytegate.admission.Priority;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -10,4 +11,10 @@ import java.lang.annotation.Target;
 public @interface Route {
     String method();
     String path();
+    int cacheSeconds() default 0;
+    String[] cacheKeyParams() default {};
+    String[] cacheKeyHeaders() default {};
+    Priority priority() default Priority.NORMAL;
+    long timeoutMillis() default 0;
+    String bulkhead() default "";
 }
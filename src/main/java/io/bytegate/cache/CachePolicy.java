@@ -0,0 +1,27 @@
+package io.bytegate.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+public record CachePolicy(Duration ttl, List<String> queryParams, List<String> headers) {
+
+    public CachePolicy {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache TTL must be positive: " + ttl);
+        }
+        queryParams = List.copyOf(queryParams);
+        headers = List.copyOf(headers);
+    }
+
+    public static CachePolicy of(Duration ttl) {
+        return new CachePolicy(ttl, List.of(), List.of());
+    }
+
+    public CachePolicy withQueryParams(String... names) {
+        return new CachePolicy(ttl, List.of(names), headers);
+    }
+
+    public CachePolicy withHeaders(String... names) {
+        return new CachePolicy(ttl, queryParams, List.of(names));
+    }
+}
@@ -0,0 +1,305 @@
+package io.bytegate.cache;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class ResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final long maxBytes;
+    private final SegmentedLruMap<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<HttpResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    public ResponseCache(int maxEntries, long maxBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Response cache must hold at least 1 entry: " + maxEntries);
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Response cache size must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.entries = new SegmentedLruMap<>(maxEntries, maxBytes);
+    }
+
+    public HttpResponse get(HttpRequest request, CachePolicy policy, Supplier<HttpResponse> handler) {
+        if (!isCacheableRequest(request, policy)) {
+            return handler.get();
+        }
+        String requestCacheControl = request.getHeader("Cache-Control");
+        if (hasDirective(requestCacheControl, "no-store")) {
+            return handler.get();
+        }
+
+        String key = key(request, policy);
+        if (!hasDirective(requestCacheControl, "no-cache") && maxAge(requestCacheControl) != 0) {
+            HttpResponse cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        CompletableFuture<HttpResponse> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            HttpResponse shared = await(leader);
+            if (shared != null) {
+                coalesced.increment();
+                return shared;
+            }
+            return handler.get();
+        }
+
+        try {
+            HttpResponse response = handler.get();
+            HttpResponse stored = store(key, policy, response);
+            pending.complete(stored);
+            return stored != null ? stored : response;
+        } catch (RuntimeException | Error e) {
+            pending.complete(null);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    public CompletableFuture<HttpResponse> getAsync(HttpRequest request, CachePolicy policy,
+                                                    Supplier<CompletableFuture<HttpResponse>> handler) {
+        if (!isCacheableRequest(request, policy)) {
+            return handler.get();
+        }
+        String requestCacheControl = request.getHeader("Cache-Control");
+        if (hasDirective(requestCacheControl, "no-store")) {
+            return handler.get();
+        }
+
+        String key = key(request, policy);
+        if (!hasDirective(requestCacheControl, "no-cache") && maxAge(requestCacheControl) != 0) {
+            HttpResponse cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        misses.increment();
+
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        CompletableFuture<HttpResponse> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            return leader.thenCompose(shared -> {
+                if (shared != null) {
+                    coalesced.increment();
+                    return CompletableFuture.completedFuture(shared);
+                }
+                return handler.get();
+            });
+        }
+
+        CompletableFuture<HttpResponse> response;
+        try {
+            response = handler.get();
+        } catch (RuntimeException | Error e) {
+            pending.complete(null);
+            inFlight.remove(key, pending);
+            throw e;
+        }
+        return response.handle((result, error) -> {
+            HttpResponse stored = error == null ? store(key, policy, result) : null;
+            pending.complete(stored);
+            inFlight.remove(key, pending);
+            if (error != null) {
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            return stored != null ? stored : result;
+        });
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long sizeInBytes() {
+        return entries.sizeInBytes();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private HttpResponse lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        return entry.response;
+    }
+
+    private HttpResponse store(String key, CachePolicy policy, HttpResponse response) {
+        long ttlNanos = ttlNanos(policy, response);
+        if (ttlNanos <= 0) {
+            return null;
+        }
+        HttpResponse.Body.Bytes body = (HttpResponse.Body.Bytes) response.getContent();
+        long size = body.content().remaining() + key.length() * 2L + ENTRY_OVERHEAD;
+        if (size > maxBytes) {
+            return null;
+        }
+        HttpResponse stored = response.isCacheable() ? response : response.toBuilder().cacheable(true).build();
+        evictions.add(entries.put(key, new Entry(stored, System.nanoTime() + ttlNanos), size));
+        return stored;
+    }
+
+    private static boolean isCacheableRequest(HttpRequest request, CachePolicy policy) {
+        String method = request.getMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return false;
+        }
+        return request.getHeader("Authorization") == null || containsIgnoreCase(policy.headers(), "Authorization");
+    }
+
+    private static long ttlNanos(CachePolicy policy, HttpResponse response) {
+        if (response.getStatusCode() != 200
+                || !(response.getContent() instanceof HttpResponse.Body.Bytes)
+                || response.getHeader("Set-Cookie") != null) {
+            return 0;
+        }
+        String cacheControl = response.getHeader("Cache-Control");
+        if (hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "no-cache")
+                || hasDirective(cacheControl, "private")) {
+            return 0;
+        }
+        long ttl = policy.ttl().toNanos();
+        long maxAge = directiveSeconds(cacheControl, "s-maxage");
+        if (maxAge < 0) {
+            maxAge = maxAge(cacheControl);
+        }
+        return maxAge < 0 ? ttl : Math.min(ttl, TimeUnit.SECONDS.toNanos(maxAge));
+    }
+
+    private static String key(HttpRequest request, CachePolicy policy) {
+        StringBuilder key = new StringBuilder(64).append(request.getMethod()).append(' ').append(request.getPath());
+        if (policy.queryParams().isEmpty()) {
+            String target = request.getTarget();
+            int queryStart = target.indexOf('?');
+            if (queryStart >= 0) {
+                key.append(target, queryStart, target.length());
+            }
+        } else {
+            for (String name : policy.queryParams()) {
+                String value = request.getQueryParam(name);
+                key.append('\0').append(name).append('=');
+                if (value != null) {
+                    key.append(value);
+                }
+            }
+        }
+        for (String name : policy.headers()) {
+            String value = request.getHeader(name);
+            key.append('\n').append(name.toLowerCase(Locale.ROOT)).append(':');
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    private static HttpResponse await(CompletableFuture<HttpResponse> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    private static long maxAge(String cacheControl) {
+        return directiveSeconds(cacheControl, "max-age");
+    }
+
+    private static long directiveSeconds(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            if (token.length() > directive.length() + 1
+                    && token.regionMatches(true, 0, directive, 0, directive.length())
+                    && token.charAt(directive.length()) == '=') {
+                try {
+                    return Math.max(0, Long.parseLong(token.substring(directive.length() + 1).replace("\"", "")));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            int equals = token.indexOf('=');
+            if ((equals < 0 ? token : token.substring(0, equals)).equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoreCase(Iterable<String> values, String value) {
+        for (String candidate : values) {
+            if (candidate.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Entry(HttpResponse response, long expiresAt) {
+    }
+}
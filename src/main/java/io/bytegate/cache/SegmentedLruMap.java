@@ -0,0 +1,162 @@
+package io.bytegate.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class SegmentedLruMap<K, V> {
+
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private static final int EVICTION_SAMPLE = 4;
+
+    private final Segment<K, V>[] segments;
+    private final int mask;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicInteger victim = new AtomicInteger();
+
+    public SegmentedLruMap(int maxEntries, long maxBytes) {
+        this(DEFAULT_SEGMENTS, maxEntries, maxBytes);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SegmentedLruMap(int segments, int maxEntries, long maxBytes) {
+        if (segments < 1 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("Segment count must be a power of two: " + segments);
+        }
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment<>();
+        }
+        this.mask = segments - 1;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Node<V> node = segment.nodes.get(key);
+            if (node == null) {
+                return null;
+            }
+            node.accessed = System.nanoTime();
+            return node.value;
+        }
+    }
+
+    public int put(K key, V value, long size) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Node<V> previous = segment.nodes.put(key, new Node<>(value, size));
+            if (previous != null) {
+                bytes.addAndGet(size - previous.size);
+            } else {
+                count.incrementAndGet();
+                bytes.addAndGet(size);
+            }
+        }
+        return evict();
+    }
+
+    public boolean remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Node<V> node = segment.nodes.get(key);
+            if (node == null || node.value != value) {
+                return false;
+            }
+            segment.nodes.remove(key);
+            count.decrementAndGet();
+            bytes.addAndGet(-node.size);
+            return true;
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Node<V> node : segment.nodes.values()) {
+                    count.decrementAndGet();
+                    bytes.addAndGet(-node.size);
+                }
+                segment.nodes.clear();
+            }
+        }
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    public long sizeInBytes() {
+        return bytes.get();
+    }
+
+    private int evict() {
+        int evicted = 0;
+        while (count.get() > maxEntries || bytes.get() > maxBytes) {
+            Segment<K, V> segment = leastRecentlyUsed(victim.getAndIncrement());
+            if (segment == null) {
+                break;
+            }
+            synchronized (segment) {
+                Iterator<Node<V>> iterator = segment.nodes.values().iterator();
+                if (!iterator.hasNext()) {
+                    continue;
+                }
+                Node<V> eldest = iterator.next();
+                iterator.remove();
+                count.decrementAndGet();
+                bytes.addAndGet(-eldest.size);
+            }
+            evicted++;
+        }
+        return evicted;
+    }
+
+    private Segment<K, V> leastRecentlyUsed(int start) {
+        Segment<K, V> chosen = null;
+        long oldest = 0;
+        int sampled = 0;
+        for (int i = 0; i < segments.length && sampled < EVICTION_SAMPLE; i++) {
+            Segment<K, V> segment = segments[(start + i) & mask];
+            synchronized (segment) {
+                Iterator<Node<V>> iterator = segment.nodes.values().iterator();
+                if (iterator.hasNext()) {
+                    long accessed = iterator.next().accessed;
+                    if (chosen == null || accessed - oldest < 0) {
+                        chosen = segment;
+                        oldest = accessed;
+                    }
+                    sampled++;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, Node<V>> nodes = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final long size;
+        private long accessed = System.nanoTime();
+
+        private Node(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
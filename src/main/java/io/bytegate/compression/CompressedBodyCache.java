@@ -0,0 +1,30 @@
+package io.bytegate.compression;
+
+import io.bytegate.cache.SegmentedLruMap;
+import java.nio.ByteBuffer;
+
+final class CompressedBodyCache {
+
+    private final long capacity;
+    private final SegmentedLruMap<Key, ByteBuffer> entries;
+
+    CompressedBodyCache(long capacity) {
+        this.capacity = capacity;
+        this.entries = new SegmentedLruMap<>(Integer.MAX_VALUE, capacity);
+    }
+
+    ByteBuffer get(Key key) {
+        ByteBuffer compressed = entries.get(key);
+        return compressed != null ? compressed.duplicate() : null;
+    }
+
+    void put(Key key, ByteBuffer compressed) {
+        if (compressed.remaining() > capacity) {
+            return;
+        }
+        entries.put(key, compressed, compressed.remaining());
+    }
+
+    record Key(ContentEncoding encoding, String path, String etag) {
+    }
+}
@@ -0,0 +1,175 @@
+package io.bytegate.compression;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public class ResponseCompressor implements AutoCloseable {
+
+    public static final int DEFAULT_MIN_SIZE = 1024;
+    public static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+    public static final long DEFAULT_CACHE_CAPACITY = 16L * 1024 * 1024;
+    public static final Set<String> DEFAULT_CONTENT_TYPES = Set.of(
+            "text/plain",
+            "text/html",
+            "text/css",
+            "text/csv",
+            "text/javascript",
+            "application/javascript",
+            "application/json",
+            "application/xml",
+            "image/svg+xml");
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private final int minSize;
+    private final Set<String> contentTypes;
+    private final DeflaterPool gzipPool;
+    private final DeflaterPool deflatePool;
+    private final CompressedBodyCache cache;
+
+    public ResponseCompressor() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_CONTENT_TYPES, DEFAULT_LEVEL, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public ResponseCompressor(int minSize, Set<String> contentTypes, int level, long cacheCapacity) {
+        if (minSize < 0 || cacheCapacity < 0) {
+            throw new IllegalArgumentException("Compression size limits must not be negative");
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9: " + level);
+        }
+        int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        this.minSize = minSize;
+        this.contentTypes = contentTypes.stream()
+                .map(type -> type.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.gzipPool = new DeflaterPool(level, true, poolSize);
+        this.deflatePool = new DeflaterPool(level, false, poolSize);
+        this.cache = new CompressedBodyCache(cacheCapacity);
+    }
+
+    public HttpResponse compress(HttpRequest request, HttpResponse response) {
+        if (!isCompressible(response)) {
+            return response;
+        }
+        HttpResponse.Builder builder = response.toBuilder().header("Vary", vary(response.getHeader("Vary")));
+        ContentEncoding encoding = ContentEncoding.negotiate(request.getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            return builder.build();
+        }
+
+        ByteBuffer content = ((HttpResponse.Body.Bytes) response.getContent()).content();
+        String etag = response.getHeader("ETag");
+        ByteBuffer compressed;
+        if (response.isCacheable() && etag != null && !etag.startsWith("W/")) {
+            CompressedBodyCache.Key key = new CompressedBodyCache.Key(encoding, request.getPath(), etag);
+            compressed = cache.get(key);
+            if (compressed == null) {
+                compressed = deflate(encoding, content);
+                cache.put(key, compressed.duplicate());
+            }
+        } else {
+            compressed = deflate(encoding, content);
+        }
+        if (compressed.remaining() >= content.remaining()) {
+            return builder.build();
+        }
+
+        builder.header("Content-Encoding", encoding.token()).body(compressed);
+        if (etag != null && !etag.startsWith("W/")) {
+            builder.header("ETag", "W/" + etag);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        gzipPool.close();
+        deflatePool.close();
+    }
+
+    private boolean isCompressible(HttpResponse response) {
+        int status = response.getStatusCode();
+        if (status < 200 || status >= 300 || status == 204 || status == 206) {
+            return false;
+        }
+        if (!(response.getContent() instanceof HttpResponse.Body.Bytes bytes) || bytes.content().remaining() < minSize) {
+            return false;
+        }
+        if (response.getHeader("Content-Encoding") != null) {
+            return false;
+        }
+        String cacheControl = response.getHeader("Cache-Control");
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-transform")) {
+            return false;
+        }
+        String contentType = response.getHeader("Content-Type");
+        if (contentType == null) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim();
+        return contentTypes.contains(mediaType.toLowerCase(Locale.ROOT));
+    }
+
+    private ByteBuffer deflate(ContentEncoding encoding, ByteBuffer content) {
+        boolean gzip = encoding == ContentEncoding.GZIP;
+        DeflaterPool pool = gzip ? gzipPool : deflatePool;
+        Deflater deflater = pool.acquire();
+        try {
+            int inputSize = content.remaining();
+            byte[] output = new byte[inputSize / 2 + 64];
+            int length = 0;
+            if (gzip) {
+                System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER.length);
+                length = GZIP_HEADER.length;
+            }
+            deflater.setInput(content.duplicate());
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            if (gzip) {
+                if (length + GZIP_TRAILER_SIZE > output.length) {
+                    output = Arrays.copyOf(output, length + GZIP_TRAILER_SIZE);
+                }
+                CRC32 crc = new CRC32();
+                crc.update(content.duplicate());
+                putIntLittleEndian(output, length, (int) crc.getValue());
+                putIntLittleEndian(output, length + 4, inputSize);
+                length += GZIP_TRAILER_SIZE;
+            }
+            return ByteBuffer.wrap(output, 0, length);
+        } finally {
+            pool.release(deflater);
+        }
+    }
+
+    private static void putIntLittleEndian(byte[] target, int offset, int value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private static String vary(String existing) {
+        if (existing == null || existing.isBlank()) {
+            return "Accept-Encoding";
+        }
+        if (existing.equals("*") || existing.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+            return existing;
+        }
+        return existing + ", Accept-Encoding";
+    }
+}
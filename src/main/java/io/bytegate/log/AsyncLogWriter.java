@@ -0,0 +1,107 @@
+package io.bytegate.log;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+final class AsyncLogWriter implements Runnable {
+
+    private static final int MAX_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final LogRingBuffer buffer;
+    private final LogOverflowPolicy overflowPolicy;
+    private final PrintStream out;
+    private final Thread drainThread;
+    private final LongAdder dropped = new LongAdder();
+    private final TimestampFormatter timestampFormatter = new TimestampFormatter();
+    private final StringBuilder batch = new StringBuilder(16 * 1024);
+
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+
+    AsyncLogWriter(int bufferSize, LogOverflowPolicy overflowPolicy, PrintStream out) {
+        this.buffer = new LogRingBuffer(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.out = out;
+        this.drainThread = new Thread(this, "bytegate-log");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    void append(LogLevel level, String message) {
+        long timestamp = System.currentTimeMillis();
+        String threadName = Thread.currentThread().getName();
+        if (!running) {
+            writeDirectly(timestamp, level, threadName, message);
+            return;
+        }
+
+        while (!buffer.offer(timestamp, level, threadName, message)) {
+            if (overflowPolicy == LogOverflowPolicy.DROP || !running) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+        if (waiting) {
+            LockSupport.unpark(drainThread);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running || !buffer.isEmpty()) {
+            if (drainBatch() > 0) {
+                continue;
+            }
+            waiting = true;
+            if (running && buffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+
+    private int drainBatch() {
+        int drained = buffer.drain(this::format, MAX_BATCH);
+        long droppedCount = dropped.sumThenReset();
+        if (droppedCount > 0) {
+            format(System.currentTimeMillis(), LogLevel.ERROR, drainThread.getName(),
+                    "Log buffer full, dropped " + droppedCount + " messages");
+        }
+        if (batch.length() > 0) {
+            out.print(batch);
+            out.flush();
+            batch.setLength(0);
+        }
+        return drained;
+    }
+
+    private void format(long timestamp, LogLevel level, String threadName, String message) {
+        batch.append('[');
+        timestampFormatter.appendTo(batch, timestamp);
+        batch.append("] [").append(level).append("] [").append(threadName).append("] ")
+                .append(message).append(System.lineSeparator());
+    }
+
+    private void writeDirectly(long timestamp, LogLevel level, String threadName, String message) {
+        StringBuilder line = new StringBuilder(message.length() + 64).append('[');
+        new TimestampFormatter().appendTo(line, timestamp);
+        line.append("] [").append(level).append("] [").append(threadName).append("] ").append(message);
+        out.println(line);
+    }
+
+    void close() {
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package io.bytegate.log;
+
+public enum LogOverflowPolicy {
+    DROP,
+    BLOCK
+}
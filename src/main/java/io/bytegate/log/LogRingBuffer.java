@@ -0,0 +1,80 @@
+package io.bytegate.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class LogRingBuffer {
+
+    interface EventHandler {
+        void onEvent(long timestamp, LogLevel level, String threadName, String message);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final LogLevel[] levels;
+    private final String[] threadNames;
+    private final String[] messages;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    LogRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.timestamps = new long[capacity];
+        this.levels = new LogLevel[capacity];
+        this.threadNames = new String[capacity];
+        this.messages = new String[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(long timestamp, LogLevel level, String threadName, String message) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+        }
+
+        timestamps[index] = timestamp;
+        levels[index] = level;
+        threadNames[index] = threadName;
+        messages[index] = message;
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    int drain(EventHandler handler, int maxEvents) {
+        int drained = 0;
+        while (drained < maxEvents) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+
+            handler.onEvent(timestamps[index], levels[index], threadNames[index], messages[index]);
+            threadNames[index] = null;
+            messages[index] = null;
+            sequences.set(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
@@ -1,35 +1,112 @@
 package io.bytegate.log;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 public class Logger {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
 
     private final LogLevel logLevel;
+    private final AsyncLogWriter writer;
 
     public Logger(LogLevel logLevel) {
+        this(logLevel, DEFAULT_BUFFER_SIZE, LogOverflowPolicy.DROP);
+    }
+
+    public Logger(LogLevel logLevel, int bufferSize, LogOverflowPolicy overflowPolicy) {
         this.logLevel = logLevel;
+        this.writer = logLevel == LogLevel.OFF ? null : new AsyncLogWriter(bufferSize, overflowPolicy, System.out);
+    }
+
+    public boolean isEnabled(LogLevel target) {
+        return logLevel.isEnabled(target);
+    }
+
+    public boolean isDebugEnabled() {
+        return logLevel.isEnabled(LogLevel.DEBUG);
     }
 
     public void info(String message) {
         log(LogLevel.INFO, message);
     }
 
+    public void info(String template, Object arg) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(template, arg));
+        }
+    }
+
+    public void info(String template, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(template, arg1, arg2));
+        }
+    }
+
+    public void info(String template, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(template, arg1, arg2, arg3));
+        }
+    }
+
     public void debug(String message) {
         log(LogLevel.DEBUG, message);
     }
 
+    public void debug(String template, Object arg) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, format(template, arg));
+        }
+    }
+
+    public void debug(String template, Object arg1, Object arg2) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, format(template, arg1, arg2));
+        }
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, message.get());
+        }
+    }
+
     public void error(String message) {
         log(LogLevel.ERROR, message);
     }
 
+    public void error(String template, Object arg) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, format(template, arg));
+        }
+    }
+
+    public void error(String template, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, format(template, arg1, arg2));
+        }
+    }
+
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
     private void log(LogLevel target, String message) {
         if (logLevel.isEnabled(target)) {
-            String timestamp = LocalDateTime.now().format(FORMATTER);
-            String threadName = Thread.currentThread().getName();
-            System.out.printf("[%s] [%s] [%s] %s%n", timestamp, target, threadName, message);
+            writer.append(target, message);
+        }
+    }
+
+    private static String format(String template, Object... args) {
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int argIndex = 0;
+        int from = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = template.indexOf("{}", from)) >= 0) {
+            sb.append(template, from, placeholder).append(args[argIndex++]);
+            from = placeholder + 2;
         }
+        return sb.append(template, from, template.length()).toString();
     }
 }
@@ -0,0 +1,32 @@
+package io.bytegate.log;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+final class TimestampFormatter {
+
+    private static final DateTimeFormatter SECONDS_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedPrefix;
+
+    void appendTo(StringBuilder sb, long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            cachedPrefix = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone).format(SECONDS_FORMATTER);
+            cachedSecond = second;
+        }
+        int millis = Math.floorMod(epochMillis, 1000);
+        sb.append(cachedPrefix).append('.');
+        if (millis < 100) {
+            sb.append('0');
+        }
+        if (millis < 10) {
+            sb.append('0');
+        }
+        sb.append(millis);
+    }
+}
@@ -0,0 +1,183 @@
+package io.bytegate.metrics;
+
+import io.bytegate.timeout.Deadline;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class Metrics {
+
+    public static final String UNMATCHED_ROUTE = "unmatched";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+    private static final String[] STATUS_LABELS = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final List<Sample> samples = new CopyOnWriteArrayList<>();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+    private final LongAdder[] timeouts = new LongAdder[Deadline.values().length];
+
+    public Metrics() {
+        for (int i = 0; i < timeouts.length; i++) {
+            timeouts[i] = new LongAdder();
+        }
+    }
+
+    public RouteMetrics route(String route) {
+        RouteMetrics metrics = routes.get(route);
+        return metrics != null ? metrics : routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    public void connectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    public void connectionClosed() {
+        connectionsClosed.increment();
+    }
+
+    public void parseError() {
+        parseErrors.increment();
+    }
+
+    public void timedOut(Deadline deadline) {
+        timeouts[deadline.ordinal()].increment();
+    }
+
+    public long timeouts(Deadline deadline) {
+        return timeouts[deadline.ordinal()].sum();
+    }
+
+    public long activeConnections() {
+        return connectionsOpened.sum() - connectionsClosed.sum();
+    }
+
+    public void gauge(String name, String help, LongSupplier value) {
+        samples.add(new Sample(name, "gauge", help, null, value));
+    }
+
+    public void gauge(String name, String help, String label, String labelValue, LongSupplier value) {
+        samples.add(new Sample(name, "gauge", help, label(label, labelValue), value));
+    }
+
+    public void counter(String name, String help, LongSupplier value) {
+        samples.add(new Sample(name, "counter", help, null, value));
+    }
+
+    public void counter(String name, String help, String label, String labelValue, LongSupplier value) {
+        samples.add(new Sample(name, "counter", help, label(label, labelValue), value));
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        Map<String, RouteMetrics> sorted = new TreeMap<>(routes);
+
+        header(out, "bytegate_requests_total", "counter", "Requests handled, by route and status class.");
+        for (RouteMetrics metrics : sorted.values()) {
+            for (int statusClass = 1; statusClass <= STATUS_LABELS.length; statusClass++) {
+                long requests = metrics.requests(statusClass);
+                if (requests > 0) {
+                    out.append("bytegate_requests_total{route=\"");
+                    escape(out, metrics.route());
+                    out.append("\",status=\"").append(STATUS_LABELS[statusClass - 1]).append("\"} ")
+                            .append(requests).append('\n');
+                }
+            }
+        }
+
+        header(out, "bytegate_request_phase_seconds", "summary",
+                "Request latency by route and phase (parse, route, handle, write).");
+        for (RouteMetrics metrics : sorted.values()) {
+            for (RouteMetrics.Phase phase : RouteMetrics.Phase.values()) {
+                LatencyHistogram histogram = metrics.histogram(phase);
+                long count = histogram.count();
+                if (count == 0) {
+                    continue;
+                }
+                String labels = labels(metrics.route(), phase);
+                long[] values = histogram.quantiles(QUANTILES);
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    out.append("bytegate_request_phase_seconds{").append(labels)
+                            .append(",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ");
+                    seconds(out, values[i]).append('\n');
+                }
+                out.append("bytegate_request_phase_seconds_sum{").append(labels).append("} ");
+                seconds(out, histogram.sum()).append('\n');
+                out.append("bytegate_request_phase_seconds_count{").append(labels).append("} ")
+                        .append(count).append('\n');
+            }
+        }
+
+        sample(out, "bytegate_connections_active", "gauge", "Open client connections.", activeConnections());
+        sample(out, "bytegate_connections_total", "counter", "Accepted client connections.", connectionsOpened.sum());
+        sample(out, "bytegate_parse_errors_total", "counter", "Requests rejected by the parser.", parseErrors.sum());
+        header(out, "bytegate_timeouts_total", "counter", "Connections and requests that missed a deadline, by phase.");
+        for (Deadline deadline : Deadline.values()) {
+            out.append("bytegate_timeouts_total{phase=\"").append(deadline.name().toLowerCase(Locale.ROOT)).append("\"} ")
+                    .append(timeouts(deadline)).append('\n');
+        }
+        String family = null;
+        for (Sample sample : samples) {
+            if (!sample.name.equals(family)) {
+                header(out, sample.name, sample.type, sample.help);
+                family = sample.name;
+            }
+            out.append(sample.name);
+            if (sample.labels != null) {
+                out.append('{').append(sample.labels).append('}');
+            }
+            out.append(' ').append(sample.value.getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String label(String name, String value) {
+        StringBuilder label = new StringBuilder(name).append("=\"");
+        escape(label, value);
+        return label.append('"').toString();
+    }
+
+    private static String labels(String route, RouteMetrics.Phase phase) {
+        StringBuilder labels = new StringBuilder("route=\"");
+        escape(labels, route);
+        return labels.append("\",phase=\"").append(phase.name().toLowerCase(Locale.ROOT)).append('"').toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String type, String help, long value) {
+        header(out, name, type, help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static StringBuilder seconds(StringBuilder out, long nanos) {
+        return out.append(nanos / 1e9);
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private record Sample(String name, String type, String help, String labels, LongSupplier value) {
+    }
+}
@@ -0,0 +1,50 @@
+package io.bytegate.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RouteMetrics {
+
+    private final String route;
+    private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+    private final LongAdder[] statusClasses = new LongAdder[5];
+
+    RouteMetrics(String route) {
+        this.route = route;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+    }
+
+    public String route() {
+        return route;
+    }
+
+    public void record(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    public void recordStatus(int statusCode) {
+        int statusClass = statusCode / 100 - 1;
+        if (statusClass >= 0 && statusClass < statusClasses.length) {
+            statusClasses[statusClass].increment();
+        }
+    }
+
+    public LatencyHistogram histogram(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    long requests(int statusClass) {
+        return statusClasses[statusClass - 1].sum();
+    }
+
+    public enum Phase {
+        PARSE,
+        ROUTE,
+        HANDLE,
+        WRITE
+    }
+}
@@ -0,0 +1,138 @@
+package io.bytegate.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+public final class Headers extends AbstractMap<String, String> {
+
+    private static final String[] EMPTY = new String[0];
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] fields;
+    private int size;
+
+    Headers() {
+        this.fields = new String[INITIAL_CAPACITY * 2];
+    }
+
+    Headers(Headers other) {
+        this.fields = other.size == 0 ? EMPTY : Arrays.copyOf(other.fields, other.size * 2);
+        this.size = other.size;
+    }
+
+    public String name(int index) {
+        return fields[index * 2];
+    }
+
+    public String value(int index) {
+        return fields[index * 2 + 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(Object name) {
+        int index = indexOf(name);
+        return index < 0 ? null : value(index);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(name) >= 0;
+    }
+
+    public String getIgnoreCase(String name) {
+        for (int i = 0; i < size; i++) {
+            String candidate = fields[i * 2];
+            if (candidate == name || candidate.equalsIgnoreCase(name)) {
+                return fields[i * 2 + 1];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(fields[i * 2], fields[i * 2 + 1]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(name(index), value(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    void set(String name, String value) {
+        int index = indexOf(name);
+        if (index >= 0) {
+            fields[index * 2 + 1] = value;
+            return;
+        }
+        if (size * 2 == fields.length) {
+            fields = Arrays.copyOf(fields, Math.max(INITIAL_CAPACITY * 2, fields.length * 2));
+        }
+        fields[size * 2] = name;
+        fields[size * 2 + 1] = value;
+        size++;
+    }
+
+    void copyFrom(Headers other) {
+        if (fields.length < other.size * 2) {
+            fields = new String[other.size * 2];
+        } else if (size > other.size) {
+            Arrays.fill(fields, other.size * 2, size * 2, null);
+        }
+        System.arraycopy(other.fields, 0, fields, 0, other.size * 2);
+        size = other.size;
+    }
+
+    void reset() {
+        Arrays.fill(fields, 0, size * 2, null);
+        size = 0;
+    }
+
+    private int indexOf(Object name) {
+        for (int i = 0; i < size; i++) {
+            String candidate = fields[i * 2];
+            if (candidate == name || candidate.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
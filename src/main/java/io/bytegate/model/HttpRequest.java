@@ -1,6 +1,15 @@
 package io.bytegate.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -8,65 +17,142 @@ import java.util.Optional;
 
 public class HttpRequest {
 
-    private final String method;
-    private final URI uri;
-    private final Map<String, String> headers;
-    private final Map<String, String> queryParams;
+    private String method;
+    private String target;
+    private String version;
+    private final Headers headers;
     private Map<String, String> pathParams;
-    private final BodyPublisher bodyPublisher;
+    private String route;
+    private BodyPublisher bodyPublisher;
+    private InetAddress remoteAddress;
+
+    private URI uri;
+    private String path;
+    private Map<String, String> queryParams;
 
     private HttpRequest(Builder builder) {
+        this.headers = new Headers(builder.headers);
+        init(builder);
+    }
+
+    private HttpRequest reinit(Builder builder) {
+        headers.copyFrom(builder.headers);
+        init(builder);
+        return this;
+    }
+
+    private void init(Builder builder) {
         this.method = builder.method;
+        this.target = builder.target;
         this.uri = builder.uri;
-        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        this.version = builder.version;
         this.bodyPublisher = builder.bodyPublisher;
-        this.queryParams = Collections.unmodifiableMap(parseQueryParams(uri));
+        this.remoteAddress = builder.remoteAddress;
         this.pathParams = Collections.emptyMap();
+        this.route = null;
+        this.path = null;
+        this.queryParams = null;
     }
 
-    private static Map<String, String> parseQueryParams(URI uri) {
+    private static Map<String, String> parseQueryParams(String query) {
         Map<String, String> params = new LinkedHashMap<>();
-        String query = uri.getQuery();
         if (query == null || query.isEmpty()) {
             return params;
         }
-        for (String pair : query.split("&")) {
-            int eq = pair.indexOf('=');
-            if (eq > 0) {
-                String key = pair.substring(0, eq);
-                String value = pair.substring(eq + 1);
+        int pairStart = 0;
+        while (pairStart <= query.length()) {
+            int pairEnd = query.indexOf('&', pairStart);
+            if (pairEnd < 0) {
+                pairEnd = query.length();
+            }
+            int eq = query.indexOf('=', pairStart);
+            if (eq > pairStart && eq < pairEnd) {
+                String key = percentDecode(query.substring(pairStart, eq));
+                String value = percentDecode(query.substring(eq + 1, pairEnd));
                 params.put(key, value);
             }
+            pairStart = pairEnd + 1;
         }
         return params;
     }
 
+    private static String percentDecode(String value) {
+        int firstEscape = value.indexOf('%');
+        if (firstEscape < 0) {
+            return value;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            int hi;
+            int lo;
+            if (bytes[i] == '%' && i + 2 < bytes.length
+                    && (hi = Character.digit(bytes[i + 1], 16)) >= 0
+                    && (lo = Character.digit(bytes[i + 2], 16)) >= 0) {
+                out.write((hi << 4) | lo);
+                i += 2;
+            } else {
+                out.write(bytes[i]);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
     public String getMethod() {
         return method;
     }
 
+    public String getTarget() {
+        return target;
+    }
+
     public String getPath() {
-        return uri.getPath();
+        if (path == null) {
+            if (target.startsWith("/")) {
+                int queryStart = target.indexOf('?');
+                path = percentDecode(queryStart < 0 ? target : target.substring(0, queryStart));
+            } else {
+                path = getUri().getPath();
+            }
+        }
+        return path;
     }
 
     public URI getUri() {
+        if (uri == null) {
+            uri = URI.create(target);
+        }
         return uri;
     }
 
-    public Map<String, String> getHeaders() {
+    public String getVersion() {
+        return version;
+    }
+
+    public Headers getHeaders() {
         return headers;
     }
 
     public String getHeader(String name) {
-        return headers.get(name);
+        return headers.getIgnoreCase(name);
     }
 
     public Map<String, String> getQueryParams() {
+        if (queryParams == null) {
+            String query;
+            if (target.startsWith("/")) {
+                int queryStart = target.indexOf('?');
+                query = queryStart < 0 ? null : target.substring(queryStart + 1);
+            } else {
+                query = getUri().getRawQuery();
+            }
+            queryParams = Collections.unmodifiableMap(parseQueryParams(query));
+        }
         return queryParams;
     }
 
     public String getQueryParam(String name) {
-        return queryParams.get(name);
+        return getQueryParams().get(name);
     }
 
     public Map<String, String> getPathParams() {
@@ -81,6 +167,18 @@ public class HttpRequest {
         this.pathParams = Collections.unmodifiableMap(pathParams);
     }
 
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    public InetAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
     public Optional<BodyPublisher> bodyPublisher() {
         return Optional.ofNullable(bodyPublisher)
                 .filter(bp -> bp.contentLength() > 0);
@@ -92,9 +190,13 @@ public class HttpRequest {
 
     public static class Builder {
         private String method = "GET";
+        private String target;
         private URI uri;
-        private final Map<String, String> headers = new LinkedHashMap<>();
+        private String version = "HTTP/1.1";
+        private final Headers headers = new Headers();
         private BodyPublisher bodyPublisher;
+        private InetAddress remoteAddress;
+        private HttpRequest reuse;
 
         public Builder method(String method, BodyPublisher bodyPublisher) {
             this.method = method;
@@ -104,16 +206,52 @@ public class HttpRequest {
 
         public Builder uri(URI uri) {
             this.uri = uri;
+            this.target = uri.toString();
+            return this;
+        }
+
+        public Builder target(String target) {
+            this.target = target;
+            this.uri = null;
+            return this;
+        }
+
+        public Builder version(String version) {
+            this.version = version;
             return this;
         }
 
         public Builder header(String name, String value) {
-            headers.put(name, value);
+            headers.set(name, value);
+            return this;
+        }
+
+        public Builder remoteAddress(InetAddress remoteAddress) {
+            this.remoteAddress = remoteAddress;
+            return this;
+        }
+
+        public Builder reuse(HttpRequest request) {
+            this.reuse = request;
+            return this;
+        }
+
+        public Builder reset() {
+            method = "GET";
+            target = null;
+            uri = null;
+            version = "HTTP/1.1";
+            headers.reset();
+            bodyPublisher = null;
+            remoteAddress = null;
+            reuse = null;
             return this;
         }
 
         public HttpRequest build() {
-            return new HttpRequest(this);
+            HttpRequest request = reuse != null ? reuse.reinit(this) : new HttpRequest(this);
+            reuse = null;
+            return request;
         }
     }
 
@@ -121,31 +259,100 @@ public class HttpRequest {
         byte[] getBytes();
 
         long contentLength();
+
+        default InputStream stream() {
+            return new ByteArrayInputStream(getBytes());
+        }
+
+        default void release() {
+        }
     }
 
     public static class BodyPublishers {
 
+        private static final BodyPublisher NO_BODY = new BodyPublisher() {
+            @Override
+            public byte[] getBytes() {
+                return new byte[0];
+            }
+
+            @Override
+            public long contentLength() {
+                return 0;
+            }
+
+            @Override
+            public String toString() {
+                return "";
+            }
+        };
+
         public static BodyPublisher noBody() {
+            return NO_BODY;
+        }
+
+        public static BodyPublisher ofBytes(byte[] bytes) {
+            return new BodyPublisher() {
+                @Override
+                public byte[] getBytes() {
+                    return bytes;
+                }
+
+                @Override
+                public long contentLength() {
+                    return bytes.length;
+                }
+
+                @Override
+                public String toString() {
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+        }
+
+        public static BodyPublisher ofFile(Path file, long length) {
             return new BodyPublisher() {
                 @Override
                 public byte[] getBytes() {
-                    return new byte[0];
+                    try {
+                        return Files.readAllBytes(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to read request body from " + file, e);
+                    }
                 }
 
                 @Override
                 public long contentLength() {
-                    return 0;
+                    return length;
+                }
+
+                @Override
+                public InputStream stream() {
+                    try {
+                        return Files.newInputStream(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to open request body " + file, e);
+                    }
+                }
+
+                @Override
+                public void release() {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to delete request body " + file, e);
+                    }
                 }
 
                 @Override
                 public String toString() {
-                    return "";
+                    return "[" + length + " bytes in " + file + "]";
                 }
             };
         }
 
         public static BodyPublisher ofString(String body) {
-            byte[] bytes = body.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
             return new BodyPublisher() {
                 @Override
                 public byte[] getBytes() {
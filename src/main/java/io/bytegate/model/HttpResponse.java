@@ -1,21 +1,31 @@
 package io.bytegate.model;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 public class HttpResponse {
 
+    private static final HttpResponse NOT_FOUND = plainText(404, "Not Found", "404 Not Found");
+    private static final HttpResponse SERVICE_UNAVAILABLE =
+            plainText(503, "Service Unavailable", "503 Service Unavailable");
+    private static final HttpResponse INTERNAL_SERVER_ERROR =
+            plainText(500, "Internal Server Error", "500 Internal Server Error");
+    private static final HttpResponse GATEWAY_TIMEOUT = plainText(504, "Gateway Timeout", "504 Gateway Timeout");
+
     private final int statusCode;
     private final String reasonPhrase;
-    private final Map<String, String> headers;
-    private final String body;
+    private final Headers headers;
+    private final Body body;
+    private final boolean cacheable;
 
     private HttpResponse(Builder builder) {
         this.statusCode = builder.statusCode;
         this.reasonPhrase = builder.reasonPhrase;
-        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        this.headers = new Headers(builder.headers);
         this.body = builder.body;
+        this.cacheable = builder.cacheable;
     }
 
     public int getStatusCode() {
@@ -26,14 +36,36 @@ public class HttpResponse {
         return reasonPhrase;
     }
 
-    public Map<String, String> getHeaders() {
+    public Headers getHeaders() {
         return headers;
     }
 
+    public String getHeader(String name) {
+        return headers.getIgnoreCase(name);
+    }
+
     public String getBody() {
+        if (body instanceof Body.Bytes bytes) {
+            return StandardCharsets.UTF_8.decode(bytes.content().duplicate()).toString();
+        }
+        throw new IllegalStateException("Streaming response body cannot be read as a String");
+    }
+
+    public Body getContent() {
         return body;
     }
 
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder().status(statusCode, reasonPhrase).cacheable(cacheable);
+        builder.headers.copyFrom(headers);
+        builder.body = body;
+        return builder;
+    }
+
     public static HttpResponse ok(String body) {
         return new Builder()
                 .status(200, "OK")
@@ -43,11 +75,7 @@ public class HttpResponse {
     }
 
     public static HttpResponse notFound() {
-        return new Builder()
-                .status(404, "Not Found")
-                .header("Content-Type", "text/plain")
-                .body("404 Not Found")
-                .build();
+        return NOT_FOUND;
     }
 
     public static HttpResponse notFound(String message) {
@@ -66,19 +94,64 @@ public class HttpResponse {
                 .build();
     }
 
-    public static HttpResponse serviceUnavailable() {
+    public static HttpResponse payloadTooLarge(String message) {
         return new Builder()
-                .status(503, "Service Unavailable")
+                .status(413, "Payload Too Large")
                 .header("Content-Type", "text/plain")
-                .body("503 Service Unavailable")
+                .body(message)
                 .build();
     }
 
+    public static HttpResponse uriTooLong(String message) {
+        return new Builder()
+                .status(414, "URI Too Long")
+                .header("Content-Type", "text/plain")
+                .body(message)
+                .build();
+    }
+
+    public static HttpResponse headerFieldsTooLarge(String message) {
+        return new Builder()
+                .status(431, "Request Header Fields Too Large")
+                .header("Content-Type", "text/plain")
+                .body(message)
+                .build();
+    }
+
+    public static HttpResponse tooManyRequests(long retryAfterSeconds) {
+        return new Builder()
+                .status(429, "Too Many Requests")
+                .header("Content-Type", "text/plain")
+                .header("Retry-After", Long.toString(retryAfterSeconds))
+                .body("429 Too Many Requests")
+                .build();
+    }
+
+    public static HttpResponse notImplemented(String message) {
+        return new Builder()
+                .status(501, "Not Implemented")
+                .header("Content-Type", "text/plain")
+                .body(message)
+                .build();
+    }
+
+    public static HttpResponse serviceUnavailable() {
+        return SERVICE_UNAVAILABLE;
+    }
+
     public static HttpResponse internalServerError() {
+        return INTERNAL_SERVER_ERROR;
+    }
+
+    public static HttpResponse gatewayTimeout() {
+        return GATEWAY_TIMEOUT;
+    }
+
+    private static HttpResponse plainText(int statusCode, String reasonPhrase, String body) {
         return new Builder()
-                .status(500, "Internal Server Error")
+                .status(statusCode, reasonPhrase)
                 .header("Content-Type", "text/plain")
-                .body("500 Internal Server Error")
+                .body(body)
                 .build();
     }
 
@@ -86,11 +159,25 @@ public class HttpResponse {
         return new Builder();
     }
 
+    public sealed interface Body {
+
+        record Bytes(ByteBuffer content) implements Body {
+            static final Bytes EMPTY = new Bytes(ByteBuffer.allocate(0));
+        }
+
+        record FileRegion(Path file, long position, long length) implements Body {
+        }
+
+        record Stream(InputStream input, long length) implements Body {
+        }
+    }
+
     public static class Builder {
         private int statusCode = 200;
         private String reasonPhrase = "OK";
-        private final Map<String, String> headers = new LinkedHashMap<>();
-        private String body = "";
+        private final Headers headers = new Headers();
+        private Body body = Body.Bytes.EMPTY;
+        private boolean cacheable;
 
         public Builder status(int statusCode, String reasonPhrase) {
             this.statusCode = statusCode;
@@ -99,12 +186,47 @@ public class HttpResponse {
         }
 
         public Builder header(String name, String value) {
-            headers.put(name, value);
+            headers.set(name, value);
             return this;
         }
 
         public Builder body(String body) {
-            this.body = body;
+            return body(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public Builder body(byte[] body) {
+            this.body = new Body.Bytes(ByteBuffer.wrap(body));
+            return this;
+        }
+
+        public Builder body(ByteBuffer body) {
+            this.body = new Body.Bytes(body.slice());
+            return this;
+        }
+
+        public Builder body(Path file) {
+            return body(file, 0, -1);
+        }
+
+        public Builder body(Path file, long position, long length) {
+            if (position < 0) {
+                throw new IllegalArgumentException("File region position must not be negative: " + position);
+            }
+            this.body = new Body.FileRegion(file, position, length);
+            return this;
+        }
+
+        public Builder body(InputStream body) {
+            return body(body, -1);
+        }
+
+        public Builder body(InputStream body, long length) {
+            this.body = new Body.Stream(body, length);
+            return this;
+        }
+
+        public Builder cacheable(boolean cacheable) {
+            this.cacheable = cacheable;
             return this;
         }
 
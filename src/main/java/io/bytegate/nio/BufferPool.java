@@ -0,0 +1,27 @@
+package io.bytegate.nio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (free.size() < maxPooled) {
+            free.addFirst(buffer);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.bytegate.nio;
+
+import io.bytegate.CoreRequestHandler;
+import io.bytegate.ThreadPoolManager;
+import io.bytegate.log.Logger;
+import io.bytegate.tls.TlsContext;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+class EventLoop implements Runnable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long SELECT_TIMEOUT_MS = 1000;
+    private static final int TLS_POOLED_BUFFERS = 64;
+
+    private final ThreadPoolManager poolManager;
+    private final CoreRequestHandler requestHandler;
+    private final long keepAliveTimeoutNanos;
+    private final Logger logger;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final TlsContext tls;
+    private final BufferPool tlsBuffers;
+    private final ByteBuffer readBuffer;
+
+    private Selector selector;
+    private volatile boolean running = true;
+
+    EventLoop(int id, ThreadPoolManager poolManager, CoreRequestHandler requestHandler,
+              Duration keepAliveTimeout, Logger logger, TlsContext tls) {
+        this.poolManager = poolManager;
+        this.tls = tls;
+        this.tlsBuffers = tls != null ? new BufferPool(4 * tls.packetBufferSize(), TLS_POOLED_BUFFERS) : null;
+        this.readBuffer = ByteBuffer.allocateDirect(tls != null
+                ? Math.max(READ_BUFFER_SIZE, 4 * tls.applicationBufferSize()) : READ_BUFFER_SIZE);
+        this.requestHandler = requestHandler;
+        this.keepAliveTimeoutNanos = keepAliveTimeout.toNanos();
+        this.logger = logger;
+        this.thread = new Thread(this, "bytegate-eventloop-" + id);
+    }
+
+    void start() throws IOException {
+        selector = Selector.open();
+        thread.start();
+    }
+
+    void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                TlsChannel secure = tls != null ? new TlsChannel(channel, tls.newEngine(), tls, tlsBuffers) : null;
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(channel, key, this, poolManager, requestHandler, logger, secure, readBuffer));
+            } catch (IOException e) {
+                logger.error("Connection closed before registration: {}", e.getMessage());
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Best effort: the channel is unusable either way.
+                }
+            }
+        });
+    }
+
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        long nextIdleSweep = System.nanoTime() + keepAliveTimeoutNanos;
+        while (running) {
+            try {
+                selector.select(SELECT_TIMEOUT_MS);
+            } catch (IOException e) {
+                logger.error("Selector failure: {}", e.getMessage());
+                break;
+            }
+            runTasks();
+            processSelectedKeys();
+
+            long now = System.nanoTime();
+            if (now - nextIdleSweep >= 0) {
+                closeIdleConnections(now);
+                nextIdleSweep = now + Math.min(keepAliveTimeoutNanos, SELECT_TIMEOUT_MS * 1_000_000);
+            }
+        }
+        closeAll();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                logger.error("Event loop task failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            NioConnection connection = (NioConnection) key.attachment();
+            if (key.isValid() && key.isReadable()) {
+                connection.onReadable(readBuffer);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.onWritable();
+            }
+        }
+    }
+
+    private void closeIdleConnections(long now) {
+        for (SelectionKey key : selector.keys()) {
+            NioConnection connection = (NioConnection) key.attachment();
+            if (connection != null && connection.isIdle(now, keepAliveTimeoutNanos)) {
+                logger.debug("Closing idle connection after {}ms", keepAliveTimeoutNanos / 1_000_000);
+                connection.close();
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            NioConnection connection = (NioConnection) key.attachment();
+            if (connection != null) {
+                connection.close();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.error("Error closing selector: {}", e.getMessage());
+        }
+    }
+
+    void drain() {
+        execute(() -> {
+            for (SelectionKey key : selector.keys()) {
+                NioConnection connection = (NioConnection) key.attachment();
+                if (connection != null && connection.isQuiescent()) {
+                    connection.close();
+                }
+            }
+        });
+    }
+
+    void shutdown() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+}
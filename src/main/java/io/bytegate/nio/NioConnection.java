@@ -0,0 +1,525 @@
+package io.bytegate.nio;
+
+import io.bytegate.Bulkhead;
+import io.bytegate.CoreRequestHandler;
+import io.bytegate.Pipeline;
+import io.bytegate.ThreadPoolManager;
+import io.bytegate.log.Logger;
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.timeout.ConnectionDeadline;
+import io.bytegate.timeout.Deadline;
+import io.bytegate.util.BodyTransfer;
+import io.bytegate.util.HttpParseException;
+import io.bytegate.util.HttpRequestParser;
+import io.bytegate.util.HttpResponseWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class NioConnection {
+
+    private final SocketChannel channel;
+    private final TlsChannel tls;
+    private final GatheringByteChannel out;
+    private final ByteBuffer tlsBuffer;
+    private final SelectionKey key;
+    private final EventLoop eventLoop;
+    private final ThreadPoolManager poolManager;
+    private final CoreRequestHandler requestHandler;
+    private final Logger logger;
+    private final HttpRequestParser parser;
+    private final HttpResponseWriter writer = new HttpResponseWriter();
+    private final Pipeline pipeline;
+    private final ConnectionDeadline deadline;
+
+    private ByteBuffer[] outbound;
+    private BodyTransfer transfer;
+    private int writeFrom;
+    private int writeTo;
+    private boolean writing;
+    private long writeStarted;
+    private boolean processing;
+    private boolean parsingOnWorker;
+    private boolean closed;
+    private boolean closeAfterWrite;
+    private long lastActive = System.nanoTime();
+
+    NioConnection(SocketChannel channel, SelectionKey key, EventLoop eventLoop, ThreadPoolManager poolManager,
+                  CoreRequestHandler requestHandler, Logger logger, TlsChannel tls, ByteBuffer tlsBuffer) {
+        this.channel = channel;
+        this.tls = tls;
+        this.out = tls != null ? tls : channel;
+        this.tlsBuffer = tlsBuffer;
+        this.key = key;
+        this.eventLoop = eventLoop;
+        this.poolManager = poolManager;
+        this.requestHandler = requestHandler;
+        this.logger = logger;
+        this.parser = requestHandler.createParser(null);
+        this.parser.deferDiskWrites(true);
+        this.parser.setRemoteAddress(channel.socket().getInetAddress());
+        this.pipeline = requestHandler.newPipeline();
+        this.deadline = requestHandler.newDeadline(expired -> eventLoop.execute(() -> onDeadline(expired)));
+        requestHandler.getMetrics().connectionOpened();
+    }
+
+    void onReadable(ByteBuffer readBuffer) {
+        if (tls != null && tls.isHandshaking()) {
+            continueHandshake();
+            return;
+        }
+        readBuffer.clear();
+        int read;
+        try {
+            read = tls != null ? tls.read(readBuffer) : channel.read(readBuffer);
+        } catch (IOException e) {
+            logger.debug("Read failed: {}", e.getMessage());
+            close();
+            return;
+        }
+        if (read == -1) {
+            close();
+            return;
+        }
+        readBuffer.flip();
+        parser.feed(readBuffer);
+        lastActive = System.nanoTime();
+        processInbound();
+    }
+
+    void onWritable() {
+        if (tls != null && tls.isHandshaking()) {
+            continueHandshake();
+            return;
+        }
+        flush();
+    }
+
+    private void continueHandshake() {
+        if (closed) {
+            return;
+        }
+        TlsChannel.Progress progress;
+        try {
+            progress = tls.handshake(tlsBuffer);
+        } catch (IOException e) {
+            logger.debug("TLS handshake failed: {}", e.getMessage());
+            close();
+            return;
+        }
+        lastActive = System.nanoTime();
+        switch (progress) {
+            case NEED_READ -> {
+                key.interestOps(SelectionKey.OP_READ);
+                if (deadline.current() != Deadline.HEADER_READ) {
+                    deadline.start(Deadline.HEADER_READ);
+                }
+            }
+            case NEED_WRITE -> {
+                key.interestOps(SelectionKey.OP_WRITE);
+                startWriteDeadline();
+            }
+            case NEED_TASK -> runHandshakeTasks();
+            case DONE -> {
+                deadline.clear();
+                key.interestOps(SelectionKey.OP_READ);
+                logger.debug("TLS handshake complete, application protocol: {}", tls.applicationProtocol());
+                onReadable(tlsBuffer);
+            }
+        }
+    }
+
+    private void runHandshakeTasks() {
+        key.interestOps(0);
+        boolean accepted = poolManager.submitTask(() -> {
+            try {
+                tls.runDelegatedTasks();
+                eventLoop.execute(this::continueHandshake);
+            } catch (Throwable e) {
+                logger.debug("TLS handshake task failed: {}", e.toString());
+                eventLoop.execute(this::close);
+            }
+        });
+        if (!accepted) {
+            tls.runDelegatedTasks();
+            continueHandshake();
+        }
+    }
+
+    boolean isQuiescent() {
+        return pipeline.served() > 0 && !processing && outbound == null && transfer == null && !parser.hasBufferedData();
+    }
+
+    boolean isIdle(long now, long timeoutNanos) {
+        return !processing && outbound == null && transfer == null && now - lastActive > timeoutNanos;
+    }
+
+    private void processInbound() {
+        if (processing || outbound != null || transfer != null || !parser.hasBufferedData()) {
+            return;
+        }
+
+        HttpRequest request;
+        try {
+            request = parser.tryParse();
+        } catch (HttpParseException e) {
+            failParse(e);
+            return;
+        }
+        if (request == null) {
+            if (parser.isDiskWritePending()) {
+                parseOnWorker();
+            } else {
+                startReadDeadline();
+            }
+            return;
+        }
+        collect(request);
+    }
+
+    private void parseOnWorker() {
+        processing = true;
+        parsingOnWorker = true;
+        key.interestOps(0);
+        boolean accepted = poolManager.submitTask(() -> {
+            try {
+                HttpRequest request = parser.tryParseBlocking();
+                eventLoop.execute(() -> onParsedOnWorker(request, null));
+            } catch (HttpParseException e) {
+                eventLoop.execute(() -> onParsedOnWorker(null, e));
+            } catch (Throwable e) {
+                logger.error("Failed to spill request body: {}", e.toString());
+                eventLoop.execute(this::onSpillFailed);
+            }
+        });
+        if (!accepted) {
+            logger.error("Thread pool exhausted while spilling request body, closing connection");
+            processing = false;
+            parsingOnWorker = false;
+            close();
+        }
+    }
+
+    private void onParsedOnWorker(HttpRequest request, HttpParseException failure) {
+        processing = false;
+        parsingOnWorker = false;
+        if (closed) {
+            if (request != null) {
+                Runnable release = () -> request.bodyPublisher().ifPresent(HttpRequest.BodyPublisher::release);
+                if (!poolManager.offerTask(release)) {
+                    release.run();
+                }
+            }
+            releaseParser();
+            return;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        if (failure != null) {
+            failParse(failure);
+        } else if (request == null) {
+            startReadDeadline();
+        } else {
+            collect(request);
+        }
+    }
+
+    private void onSpillFailed() {
+        processing = false;
+        parsingOnWorker = false;
+        if (closed) {
+            releaseParser();
+        } else {
+            close();
+        }
+    }
+
+    private void failParse(HttpParseException e) {
+        deadline.clear();
+        pipeline.clear();
+        pipeline.fail(requestHandler.parseErrorResponse(e));
+        respond();
+    }
+
+    private void collect(HttpRequest request) {
+        deadline.clear();
+        requestHandler.collect(pipeline, parser, request);
+        int pending = pipeline.pending();
+        if (pending == 0) {
+            respond();
+            return;
+        }
+        processing = true;
+        key.interestOps(0);
+        if (pending > 1 && requestHandler.isParallelPipelining()) {
+            dispatchParallel(pending);
+        } else {
+            dispatch(0);
+        }
+    }
+
+    private void startReadDeadline() {
+        Deadline phase = parser.isReadingBody() ? Deadline.BODY_READ : Deadline.HEADER_READ;
+        if (deadline.current() != phase) {
+            deadline.start(phase);
+        }
+    }
+
+    private void startWriteDeadline() {
+        if (deadline.current() != Deadline.WRITE) {
+            deadline.start(Deadline.WRITE);
+        }
+    }
+
+    private void onDeadline(Deadline expired) {
+        if (closed || !deadline.hasExpired(expired)) {
+            return;
+        }
+        requestHandler.getMetrics().timedOut(expired);
+        logger.debug("Closing connection after missing the {} deadline", expired);
+        close();
+    }
+
+    private void dispatch(int from) {
+        int index = from;
+        while (index < pipeline.size() && !pipeline.needsHandling(index)) {
+            index++;
+        }
+        if (index == pipeline.size()) {
+            respondWhenComplete();
+            return;
+        }
+
+        int start = index;
+        Bulkhead bulkhead = requestHandler.bulkhead(pipeline, start);
+        Runnable task = () -> runFrom(start, bulkhead);
+        if (bulkhead != null) {
+            if (!bulkhead.submit(task)) {
+                requestHandler.reject(pipeline, start, bulkhead);
+                dispatch(start + 1);
+            }
+        } else if (!poolManager.submitTask(task)) {
+            logger.error("Thread pool exhausted, rejecting request with 503");
+            for (int i = start; i < pipeline.size(); i++) {
+                if (pipeline.needsHandling(i)) {
+                    requestHandler.reject(pipeline, i);
+                }
+            }
+            respondWhenComplete();
+        }
+    }
+
+    private void runFrom(int index, Bulkhead bulkhead) {
+        int i = index;
+        try {
+            do {
+                requestHandler.execute(pipeline, i);
+                i++;
+            } while (i < pipeline.size() && requestHandler.bulkhead(pipeline, i) == bulkhead);
+        } catch (Throwable e) {
+            requestHandler.abort(pipeline, i, e);
+            respondWhenComplete();
+            return;
+        }
+        dispatch(i);
+    }
+
+    private void dispatchParallel(int pending) {
+        AtomicInteger remaining = new AtomicInteger(pending);
+        for (int i = 0; i < pipeline.size(); i++) {
+            if (!pipeline.needsHandling(i)) {
+                continue;
+            }
+            int index = i;
+            Bulkhead bulkhead = requestHandler.bulkhead(pipeline, index);
+            Runnable task = () -> {
+                try {
+                    requestHandler.execute(pipeline, index);
+                } catch (Throwable e) {
+                    requestHandler.fail(pipeline, index, e);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    respondWhenComplete();
+                }
+            };
+            boolean accepted = bulkhead != null ? bulkhead.submit(task) : poolManager.submitTask(task);
+            if (!accepted) {
+                if (bulkhead != null) {
+                    requestHandler.reject(pipeline, index, bulkhead);
+                } else {
+                    logger.error("Thread pool exhausted, rejecting request with 503");
+                    requestHandler.reject(pipeline, index);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    respondWhenComplete();
+                }
+            }
+        }
+    }
+
+    private void respondWhenComplete() {
+        CompletableFuture<Void> deferred = pipeline.deferred();
+        if (deferred == null) {
+            eventLoop.execute(this::respond);
+        } else {
+            deferred.whenComplete((result, error) -> eventLoop.execute(this::respond));
+        }
+    }
+
+    private void respond() {
+        processing = false;
+        writeTo = 0;
+        writeNext();
+    }
+
+    private void writeNext() {
+        HttpResponse[] responses = pipeline.responses();
+        int size = pipeline.size();
+        writeFrom = writeTo;
+        writeTo = writer.batchEnd(responses, writeFrom, size);
+        boolean chunked = pipeline.acceptsChunked(writeFrom);
+        boolean keepAlive = (writeTo < size || pipeline.isKeepAlive() && !requestHandler.isDraining())
+                && !HttpResponseWriter.isCloseDelimited(responses[writeFrom], chunked);
+        writing = true;
+        writeStarted = System.nanoTime();
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            outbound = writer.encode(responses, writeFrom, writeTo, keepAlive, chunked);
+        } catch (IOException e) {
+            logger.error("Failed to open response body: {}", e.getMessage());
+            pipeline.fail(writeFrom, HttpResponse.internalServerError());
+            writeTo = writeFrom;
+            writeNext();
+            return;
+        }
+        transfer = writer.takeBodyTransfer();
+        closeAfterWrite = !keepAlive;
+        flush();
+    }
+
+    private void flush() {
+        try {
+            if (outbound != null) {
+                out.write(outbound);
+                if (outbound[outbound.length - 1].hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    startWriteDeadline();
+                    return;
+                }
+                outbound = null;
+            }
+            if (transfer != null && !transferBody()) {
+                return;
+            }
+            if (tls != null && !tls.flushNet()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                startWriteDeadline();
+                return;
+            }
+        } catch (IOException e) {
+            logger.debug("Write failed: {}", e.getMessage());
+            close();
+            return;
+        }
+
+        lastActive = System.nanoTime();
+        if (!writing) {
+            return;
+        }
+        writing = false;
+        deadline.clear();
+        requestHandler.recordWrite(pipeline, writeFrom, writeTo, lastActive - writeStarted);
+        if (writeTo < pipeline.size() && !closeAfterWrite) {
+            writeNext();
+            return;
+        }
+        pipeline.recycle(parser);
+        if (closeAfterWrite) {
+            close();
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+            processInbound();
+        }
+    }
+
+    private boolean transferBody() throws IOException {
+        while (!transfer.isComplete()) {
+            if (transfer.needsFill()) {
+                fillOnWorker();
+                return false;
+            }
+            transfer.writeTo(out);
+            if (!transfer.isComplete() && !transfer.needsFill()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                startWriteDeadline();
+                return false;
+            }
+        }
+        closeTransfer();
+        return true;
+    }
+
+    private void fillOnWorker() {
+        key.interestOps(0);
+        BodyTransfer filling = transfer;
+        boolean accepted = poolManager.submitTask(() -> {
+            try {
+                filling.fill();
+                eventLoop.execute(this::flush);
+            } catch (Throwable e) {
+                logger.error("Failed to read response body: {}", e.toString());
+                eventLoop.execute(this::close);
+            }
+        });
+        if (!accepted) {
+            logger.error("Thread pool exhausted while streaming response body, closing connection");
+            close();
+        }
+    }
+
+    private void closeTransfer() {
+        try {
+            transfer.close();
+        } catch (IOException e) {
+            logger.error("Error closing response body: {}", e.getMessage());
+        }
+        transfer = null;
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        deadline.clear();
+        requestHandler.getMetrics().connectionClosed();
+        if (transfer != null) {
+            closeTransfer();
+        }
+        if (!parsingOnWorker) {
+            releaseParser();
+        }
+        if (tls != null) {
+            tls.close();
+        }
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    private void releaseParser() {
+        if (parser.hasSpilledBody() && poolManager.offerTask(parser::release)) {
+            return;
+        }
+        parser.release();
+    }
+}
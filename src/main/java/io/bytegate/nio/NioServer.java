@@ -0,0 +1,126 @@
+package io.bytegate.nio;
+
+import io.bytegate.CoreRequestHandler;
+import io.bytegate.ThreadPoolManager;
+import io.bytegate.log.Logger;
+import io.bytegate.tls.TlsContext;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+
+public class NioServer {
+
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    private final int port;
+    private final boolean reusePort;
+    private final EventLoop[] eventLoops;
+    private final ServerSocketChannel[] serverChannels;
+    private final Logger logger;
+    private final boolean secure;
+
+    public NioServer(int port, boolean reusePort, int eventLoopThreads, ThreadPoolManager[] partitions,
+                     CoreRequestHandler requestHandler, Duration keepAliveTimeout, Logger logger, TlsContext tls) {
+        this.port = port;
+        this.secure = tls != null;
+        this.reusePort = reusePort;
+        this.logger = logger;
+        this.serverChannels = new ServerSocketChannel[partitions.length];
+        this.eventLoops = new EventLoop[Math.max(eventLoopThreads, partitions.length)];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new EventLoop(i + 1, partitions[i % partitions.length], requestHandler,
+                    keepAliveTimeout, logger, tls);
+        }
+    }
+
+    public void start() throws IOException {
+        for (int i = 0; i < serverChannels.length; i++) {
+            serverChannels[i] = openServerChannel(port, reusePort || serverChannels.length > 1, ACCEPT_BACKLOG, logger);
+        }
+
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.start();
+        }
+        logger.info(secure ? "Server running on port {} (https) with {} acceptors and {} event loops..."
+                : "Server running on port {} with {} acceptors and {} event loops...", port, serverChannels.length, eventLoops.length);
+        for (int i = 0; i < serverChannels.length; i++) {
+            startAcceptLoop(i);
+        }
+    }
+
+    public static ServerSocketChannel openServerChannel(int port, boolean reusePort, int backlog, Logger logger)
+            throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            if (reusePort) {
+                enableReusePort(channel, logger);
+            }
+            return channel.bind(new InetSocketAddress(port), backlog);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void startAcceptLoop(int acceptor) {
+        ServerSocketChannel serverChannel = serverChannels[acceptor];
+        int partitions = serverChannels.length;
+        Thread acceptThread = new Thread(() -> {
+            int nextLoop = acceptor;
+            while (serverChannel.isOpen()) {
+                try {
+                    SocketChannel channel = serverChannel.accept();
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    eventLoops[nextLoop].register(channel);
+                    nextLoop += partitions;
+                    if (nextLoop >= eventLoops.length) {
+                        nextLoop = acceptor;
+                    }
+                } catch (IOException e) {
+                    if (serverChannel.isOpen()) {
+                        logger.error("Error accepting connection: {}", e.getMessage());
+                    }
+                }
+            }
+        }, partitions == 1 ? "bytegate-accept" : "bytegate-accept-" + (acceptor + 1));
+        acceptThread.start();
+    }
+
+    public void stopAccepting() {
+        for (ServerSocketChannel serverChannel : serverChannels) {
+            if (serverChannel == null) {
+                continue;
+            }
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                logger.error("Error closing server channel: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void drain() {
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.drain();
+        }
+    }
+
+    private static void enableReusePort(ServerSocketChannel channel, Logger logger) throws IOException {
+        if (channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+            channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        } else {
+            logger.error("SO_REUSEPORT is not supported on this platform, binding without it");
+        }
+    }
+
+    public void close() {
+        stopAccepting();
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package io.bytegate.nio;
+
+import io.bytegate.tls.TlsContext;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SocketChannel;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+
+final class TlsChannel implements GatheringByteChannel {
+
+    enum Progress { DONE, NEED_READ, NEED_WRITE, NEED_TASK }
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SocketChannel channel;
+    private final SSLEngine engine;
+    private final TlsContext context;
+    private final BufferPool pool;
+    private final int packetSize;
+    private final long handshakeStarted = System.currentTimeMillis();
+    private final ByteBuffer[] single = new ByteBuffer[1];
+
+    private ByteBuffer netIn;
+    private ByteBuffer netOut;
+    private boolean handshaking = true;
+    private boolean inputClosed;
+
+    TlsChannel(SocketChannel channel, SSLEngine engine, TlsContext context, BufferPool pool) throws SSLException {
+        this.channel = channel;
+        this.engine = engine;
+        this.context = context;
+        this.pool = pool;
+        this.packetSize = context.packetBufferSize();
+        engine.beginHandshake();
+    }
+
+    boolean isHandshaking() {
+        return handshaking;
+    }
+
+    String applicationProtocol() {
+        return engine.getApplicationProtocol();
+    }
+
+    Progress handshake(ByteBuffer scratch) throws IOException {
+        try {
+            while (true) {
+                HandshakeStatus status = engine.getHandshakeStatus();
+                switch (status) {
+                    case NEED_TASK -> {
+                        return Progress.NEED_TASK;
+                    }
+                    case NEED_WRAP -> {
+                        if (!wrapHandshake()) {
+                            return Progress.NEED_WRITE;
+                        }
+                    }
+                    case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                        if (!unwrapHandshake(scratch, status == HandshakeStatus.NEED_UNWRAP_AGAIN)) {
+                            return Progress.NEED_READ;
+                        }
+                    }
+                    default -> {
+                        if (netOut == null) {
+                            acquireNetOut();
+                            engine.wrap(EMPTY, netOut);
+                        }
+                        if (!flushNet()) {
+                            return Progress.NEED_WRITE;
+                        }
+                        handshaking = false;
+                        context.handshakeCompleted(engine.getSession(), handshakeStarted);
+                        return Progress.DONE;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            context.handshakeFailed();
+            throw e;
+        }
+    }
+
+    void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private boolean wrapHandshake() throws IOException {
+        if (!flushNet()) {
+            return false;
+        }
+        acquireNetOut();
+        SSLEngineResult result = engine.wrap(EMPTY, netOut);
+        if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+            flushNet();
+            throw new SSLException("TLS handshake closed by the engine");
+        }
+        return flushNet();
+    }
+
+    private boolean unwrapHandshake(ByteBuffer scratch, boolean again) throws IOException {
+        if (netIn == null) {
+            netIn = pool.acquire();
+        }
+        if (!again && netIn.position() == 0 && channel.read(netIn) < 0) {
+            throw new EOFException("Connection closed during TLS handshake");
+        }
+        while (true) {
+            netIn.flip();
+            SSLEngineResult result;
+            try {
+                scratch.clear();
+                result = engine.unwrap(netIn, scratch);
+            } finally {
+                netIn.compact();
+            }
+            switch (result.getStatus()) {
+                case OK -> {
+                    releaseNetIn();
+                    return true;
+                }
+                case BUFFER_UNDERFLOW -> {
+                    int read = channel.read(netIn);
+                    if (read < 0) {
+                        throw new EOFException("Connection closed during TLS handshake");
+                    }
+                    if (read == 0) {
+                        return false;
+                    }
+                }
+                case CLOSED -> throw new SSLException("TLS handshake closed by the peer");
+                default -> throw new SSLException("TLS handshake buffer overflow");
+            }
+        }
+    }
+
+    public int read(ByteBuffer dst) throws IOException {
+        if (inputClosed) {
+            return -1;
+        }
+        if (netIn == null) {
+            netIn = pool.acquire();
+        }
+        int read = channel.read(netIn);
+        int produced = unwrap(dst);
+        if (produced == 0 && (read < 0 || inputClosed)) {
+            inputClosed = true;
+            return -1;
+        }
+        return produced;
+    }
+
+    private int unwrap(ByteBuffer dst) throws IOException {
+        int produced = 0;
+        netIn.flip();
+        try {
+            while (netIn.hasRemaining() && !inputClosed) {
+                SSLEngineResult result = engine.unwrap(netIn, dst);
+                produced += result.bytesProduced();
+                switch (result.getStatus()) {
+                    case BUFFER_UNDERFLOW -> {
+                        return produced;
+                    }
+                    case BUFFER_OVERFLOW -> throw new SSLException("TLS read buffer overflow");
+                    case CLOSED -> inputClosed = true;
+                    default -> {
+                        if (result.getHandshakeStatus() != HandshakeStatus.NOT_HANDSHAKING
+                                && result.getHandshakeStatus() != HandshakeStatus.FINISHED) {
+                            postHandshake();
+                        }
+                    }
+                }
+            }
+            return produced;
+        } finally {
+            netIn.compact();
+            releaseNetIn();
+        }
+    }
+
+    private void postHandshake() throws IOException {
+        while (true) {
+            switch (engine.getHandshakeStatus()) {
+                case NEED_TASK -> runDelegatedTasks();
+                case NEED_WRAP -> {
+                    acquireNetOut();
+                    if (netOut.remaining() < packetSize) {
+                        return;
+                    }
+                    engine.wrap(EMPTY, netOut);
+                }
+                default -> {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        single[0] = src;
+        try {
+            return (int) write(single, 0, 1);
+        } finally {
+            single[0] = null;
+        }
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+        return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        if (!flushNet()) {
+            return 0;
+        }
+        long consumed = 0;
+        boolean progress = true;
+        while (progress && hasRemaining(srcs, offset, length)) {
+            acquireNetOut();
+            while (netOut.remaining() >= packetSize && hasRemaining(srcs, offset, length)) {
+                SSLEngineResult result = engine.wrap(srcs, offset, length, netOut);
+                if (result.getStatus() != SSLEngineResult.Status.OK) {
+                    throw new SSLException("TLS write failed: " + result.getStatus());
+                }
+                if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+                    progress = false;
+                    break;
+                }
+                consumed += result.bytesConsumed();
+            }
+            if (!flushNet()) {
+                break;
+            }
+        }
+        return consumed;
+    }
+
+    boolean flushNet() throws IOException {
+        if (netOut == null) {
+            return true;
+        }
+        netOut.flip();
+        try {
+            channel.write(netOut);
+        } finally {
+            netOut.compact();
+        }
+        if (netOut.position() > 0) {
+            return false;
+        }
+        pool.release(netOut);
+        netOut = null;
+        return true;
+    }
+
+    private void acquireNetOut() {
+        if (netOut == null) {
+            netOut = pool.acquire();
+        }
+    }
+
+    private void releaseNetIn() {
+        if (netIn != null && netIn.position() == 0) {
+            pool.release(netIn);
+            netIn = null;
+        }
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] srcs, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (srcs[i].hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() {
+        if (!engine.isOutboundDone() && channel.isOpen()) {
+            engine.closeOutbound();
+            try {
+                acquireNetOut();
+                if (netOut.remaining() >= packetSize) {
+                    engine.wrap(EMPTY, netOut);
+                }
+                flushNet();
+            } catch (IOException e) {
+                // Best effort: the socket is closed next whether or not close_notify went out.
+            }
+        }
+        if (netOut != null) {
+            pool.release(netOut);
+            netOut = null;
+        }
+        if (netIn != null) {
+            pool.release(netIn);
+            netIn = null;
+        }
+    }
+}
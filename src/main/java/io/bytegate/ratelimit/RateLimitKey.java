@@ -0,0 +1,22 @@
+package io.bytegate.ratelimit;
+
+import io.bytegate.RouteMatch;
+import io.bytegate.model.HttpRequest;
+
+@FunctionalInterface
+public interface RateLimitKey {
+
+    Object resolve(HttpRequest request, RouteMatch match);
+
+    static RateLimitKey clientAddress() {
+        return (request, match) -> request.getRemoteAddress();
+    }
+
+    static RateLimitKey header(String name) {
+        return (request, match) -> request.getHeader(name);
+    }
+
+    static RateLimitKey route() {
+        return (request, match) -> request.getRoute();
+    }
+}
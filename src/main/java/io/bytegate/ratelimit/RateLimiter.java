@@ -0,0 +1,162 @@
+package io.bytegate.ratelimit;
+
+import io.bytegate.Interceptor;
+import io.bytegate.RouteMatch;
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.timeout.TimerWheel;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RateLimiter implements Interceptor {
+
+    public static final int DEFAULT_MAX_KEYS = 100_000;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+    public static final Duration MAX_SWEEP_INTERVAL = Duration.ofSeconds(1);
+
+    private static final int CACHED_RETRY_AFTER_SECONDS = 60;
+    private static final int SWEEP_BATCH = 1024;
+
+    private final RateLimitKey key;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final long idleNanos;
+    private final long sweepNanos;
+    private final ConcurrentHashMap<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final HttpResponse[] rejections = new HttpResponse[CACHED_RETRY_AFTER_SECONDS + 1];
+    private final LongAdder limited = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private volatile TimerWheel.Timer sweeper;
+    private Iterator<Map.Entry<Object, TokenBucket>> sweepCursor;
+
+    public RateLimiter(RateLimitKey key, double permitsPerSecond, int burst) {
+        this(key, permitsPerSecond, burst, DEFAULT_MAX_KEYS, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public RateLimiter(RateLimitKey key, double permitsPerSecond, int burst, int maxKeys, Duration idleTimeout) {
+        if (!(permitsPerSecond > 0) || permitsPerSecond > TimeUnit.SECONDS.toNanos(1)) {
+            throw new IllegalArgumentException("Permits per second must be positive and at most 1e9: " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1: " + burst);
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Max keys must be at least 1: " + maxKeys);
+        }
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive: " + idleTimeout);
+        }
+        this.key = key;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.idleNanos = idleTimeout.toNanos();
+        this.sweepNanos = Math.min(idleNanos, MAX_SWEEP_INTERVAL.toNanos());
+    }
+
+    public void scheduleSweep(TimerWheel timerWheel) {
+        TimerWheel.Timer timer = timerWheel.newTimer(() -> {
+            boolean finished = true;
+            try {
+                finished = sweep(SWEEP_BATCH);
+            } finally {
+                sweeper.arm(finished ? sweepNanos : 0);
+            }
+        });
+        sweeper = timer;
+        timer.arm(sweepNanos);
+    }
+
+    @Override
+    public HttpResponse intercept(HttpRequest request, RouteMatch match) {
+        Object k = key.resolve(request, match);
+        if (k == null) {
+            return null;
+        }
+        long wait = tryAcquire(k);
+        return wait == 0 ? null : tooManyRequests(wait);
+    }
+
+    public long tryAcquire(Object key) {
+        long now = System.nanoTime();
+        while (true) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys) {
+                    overflowed.increment();
+                    limited.increment();
+                    return sweepNanos;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            }
+            long wait = bucket.tryAcquire(now, intervalNanos, burstNanos);
+            if (wait != TokenBucket.RETIRED) {
+                if (wait > 0) {
+                    limited.increment();
+                }
+                return wait;
+            }
+            buckets.remove(key, bucket);
+        }
+    }
+
+    public synchronized void sweep() {
+        sweepCursor = null;
+        sweep(Integer.MAX_VALUE);
+    }
+
+    synchronized boolean sweep(int maxBuckets) {
+        if (sweepCursor == null) {
+            sweepCursor = buckets.entrySet().iterator();
+        }
+        long now = System.nanoTime();
+        long fullFor = buckets.size() >= maxKeys - maxKeys / 10 ? 0 : idleNanos;
+        for (int i = 0; i < maxBuckets && sweepCursor.hasNext(); i++) {
+            Map.Entry<Object, TokenBucket> entry = sweepCursor.next();
+            if (entry.getValue().retire(now, fullFor)) {
+                buckets.remove(entry.getKey(), entry.getValue());
+                evicted.increment();
+            }
+        }
+        if (sweepCursor.hasNext()) {
+            return false;
+        }
+        sweepCursor = null;
+        return true;
+    }
+
+    private HttpResponse tooManyRequests(long waitNanos) {
+        long seconds = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        if (seconds > CACHED_RETRY_AFTER_SECONDS) {
+            return HttpResponse.tooManyRequests(seconds);
+        }
+        HttpResponse response = rejections[(int) seconds];
+        if (response == null) {
+            response = HttpResponse.tooManyRequests(seconds);
+            rejections[(int) seconds] = response;
+        }
+        return response;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getLimited() {
+        return limited.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+}
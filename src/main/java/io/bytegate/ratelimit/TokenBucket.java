@@ -0,0 +1,39 @@
+package io.bytegate.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TokenBucket {
+
+    static final long RETIRED = -1;
+
+    private static final long RETIRED_ARRIVAL = Long.MIN_VALUE;
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    long tryAcquire(long now, long intervalNanos, long burstNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            if (current == RETIRED_ARRIVAL) {
+                return RETIRED;
+            }
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean retire(long now, long fullForNanos) {
+        long current = theoreticalArrival.get();
+        return current != RETIRED_ARRIVAL && now - current >= fullForNanos
+                && theoreticalArrival.compareAndSet(current, RETIRED_ARRIVAL);
+    }
+}
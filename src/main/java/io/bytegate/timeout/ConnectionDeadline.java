@@ -0,0 +1,51 @@
+package io.bytegate.timeout;
+
+import java.util.function.Consumer;
+
+public final class ConnectionDeadline {
+
+    private final DeadlinePolicy policy;
+    private final TimerWheel.Timer timer;
+    private volatile Deadline current;
+    private volatile Deadline expired;
+
+    public ConnectionDeadline(TimerWheel wheel, DeadlinePolicy policy, Consumer<Deadline> onExpired) {
+        this.policy = policy;
+        this.timer = wheel.newTimer(() -> {
+            Deadline deadline = current;
+            if (deadline != null) {
+                expired = deadline;
+                onExpired.accept(deadline);
+            }
+        });
+    }
+
+    public void start(Deadline deadline) {
+        long nanos = policy.nanos(deadline);
+        if (nanos == 0) {
+            clear();
+            return;
+        }
+        current = deadline;
+        timer.arm(nanos);
+    }
+
+    public void clear() {
+        if (current != null) {
+            current = null;
+            timer.disarm();
+        }
+    }
+
+    public Deadline current() {
+        return current;
+    }
+
+    public Deadline expired() {
+        return expired;
+    }
+
+    public boolean hasExpired(Deadline deadline) {
+        return current == deadline && !timer.isArmed();
+    }
+}
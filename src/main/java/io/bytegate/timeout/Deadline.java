@@ -0,0 +1,8 @@
+package io.bytegate.timeout;
+
+public enum Deadline {
+    HEADER_READ,
+    BODY_READ,
+    HANDLER,
+    WRITE
+}
@@ -0,0 +1,48 @@
+package io.bytegate.timeout;
+
+import java.time.Duration;
+
+public record DeadlinePolicy(Duration headerRead, Duration bodyRead, Duration handler, Duration write) {
+
+    public static final DeadlinePolicy DEFAULT =
+            new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(30), null, Duration.ofSeconds(30));
+
+    public DeadlinePolicy {
+        requirePositive("Header read", headerRead);
+        requirePositive("Body read", bodyRead);
+        requirePositive("Handler", handler);
+        requirePositive("Write", write);
+    }
+
+    public long nanos(Deadline deadline) {
+        Duration timeout = switch (deadline) {
+            case HEADER_READ -> headerRead;
+            case BODY_READ -> bodyRead;
+            case HANDLER -> handler;
+            case WRITE -> write;
+        };
+        return timeout == null ? 0 : timeout.toNanos();
+    }
+
+    public DeadlinePolicy withHeaderRead(Duration timeout) {
+        return new DeadlinePolicy(timeout, bodyRead, handler, write);
+    }
+
+    public DeadlinePolicy withBodyRead(Duration timeout) {
+        return new DeadlinePolicy(headerRead, timeout, handler, write);
+    }
+
+    public DeadlinePolicy withHandler(Duration timeout) {
+        return new DeadlinePolicy(headerRead, bodyRead, timeout, write);
+    }
+
+    public DeadlinePolicy withWrite(Duration timeout) {
+        return new DeadlinePolicy(headerRead, bodyRead, handler, timeout);
+    }
+
+    private static void requirePositive(String name, Duration timeout) {
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException(name + " timeout must be positive: " + timeout);
+        }
+    }
+}
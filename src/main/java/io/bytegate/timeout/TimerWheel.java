@@ -0,0 +1,169 @@
+package io.bytegate.timeout;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public final class TimerWheel {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final long DISARMED = Long.MIN_VALUE;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timer[] buckets;
+    private final ConcurrentLinkedQueue<Timer> queued = new ConcurrentLinkedQueue<>();
+    private final Consumer<RuntimeException> errorHandler;
+    private final Thread thread;
+    private final long startedAt = System.nanoTime();
+    private long cursor;
+    private volatile boolean running = true;
+
+    public TimerWheel(Consumer<RuntimeException> errorHandler) {
+        this(DEFAULT_TICK, DEFAULT_WHEEL_SIZE, errorHandler);
+    }
+
+    public TimerWheel(Duration tick, int wheelSize, Consumer<RuntimeException> errorHandler) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Timer tick must be positive: " + tick);
+        }
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Timer wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = tick.toNanos();
+        this.mask = wheelSize - 1;
+        this.buckets = new Timer[wheelSize];
+        this.errorHandler = errorHandler;
+        this.thread = new Thread(this::run, "bytegate-timer");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public Timer newTimer(Runnable task) {
+        return new Timer(this, task);
+    }
+
+    public Timer schedule(Runnable task, long delayNanos) {
+        Timer timer = new Timer(this, task);
+        timer.arm(delayNanos);
+        return timer;
+    }
+
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        long nextTick = startedAt + tickNanos;
+        while (running) {
+            long now = System.nanoTime();
+            if (nextTick - now > 0) {
+                LockSupport.parkNanos(this, nextTick - now);
+                continue;
+            }
+            nextTick += tickNanos;
+            advance(now);
+        }
+    }
+
+    private void advance(long now) {
+        Timer timer;
+        while ((timer = queued.poll()) != null) {
+            place(timer);
+        }
+        long current = (now - startedAt) / tickNanos;
+        long last = Math.min(current, cursor + mask);
+        while (cursor <= last) {
+            int slot = (int) (cursor & mask);
+            cursor++;
+            Timer next = buckets[slot];
+            buckets[slot] = null;
+            while (next != null) {
+                timer = next;
+                next = timer.next;
+                timer.next = null;
+                visit(timer, now);
+            }
+        }
+        cursor = Math.max(cursor, current + 1);
+    }
+
+    private void visit(Timer timer, long now) {
+        while (true) {
+            long expiresAt = timer.expiresAt.get();
+            if (expiresAt == DISARMED) {
+                timer.queued.set(false);
+                if (timer.expiresAt.get() == DISARMED || !timer.queued.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (expiresAt - now > 0) {
+                place(timer);
+                return;
+            }
+            if (timer.expiresAt.compareAndSet(expiresAt, DISARMED)) {
+                timer.queued.set(false);
+                expire(timer);
+                if (timer.expiresAt.get() == DISARMED || !timer.queued.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long expiresAt = timer.expiresAt.get();
+        long tick = expiresAt == DISARMED ? cursor : Math.max((expiresAt - startedAt) / tickNanos, cursor);
+        int slot = (int) (tick & mask);
+        timer.next = buckets[slot];
+        buckets[slot] = timer;
+    }
+
+    private void expire(Timer timer) {
+        try {
+            timer.task.run();
+        } catch (RuntimeException e) {
+            errorHandler.accept(e);
+        }
+    }
+
+    public static final class Timer {
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final AtomicLong expiresAt = new AtomicLong(DISARMED);
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private Timer next;
+
+        private Timer(TimerWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        public void arm(long delayNanos) {
+            long deadline = System.nanoTime() + delayNanos;
+            expiresAt.set(deadline == DISARMED ? deadline + 1 : deadline);
+            if (!queued.get() && queued.compareAndSet(false, true)) {
+                wheel.queued.add(this);
+            }
+        }
+
+        public void disarm() {
+            expiresAt.set(DISARMED);
+        }
+
+        public boolean isArmed() {
+            return expiresAt.get() != DISARMED;
+        }
+    }
+}
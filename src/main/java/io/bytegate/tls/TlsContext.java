@@ -0,0 +1,89 @@
+package io.bytegate.tls;
+
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+public class TlsContext {
+
+    private final SSLContext context;
+    private final String[] protocols;
+    private final String[] applicationProtocols;
+    private final BiFunction<SSLEngine, List<String>, String> applicationProtocolSelector;
+    private final int packetBufferSize;
+    private final int applicationBufferSize;
+    private final LongAdder handshakes = new LongAdder();
+    private final LongAdder resumed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public TlsContext(TlsConfig config) {
+        try {
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(config.keyStore(), config.keyPassword());
+            context = SSLContext.getInstance("TLS");
+            context.init(keyManagers.getKeyManagers(), null, null);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Failed to initialize TLS: " + e.getMessage(), e);
+        }
+        SSLSessionContext sessions = context.getServerSessionContext();
+        sessions.setSessionCacheSize(config.sessionCacheSize());
+        sessions.setSessionTimeout((int) Math.min(Integer.MAX_VALUE, config.sessionTimeout().toSeconds()));
+        this.protocols = config.protocols().toArray(new String[0]);
+        this.applicationProtocols = config.applicationProtocols().toArray(new String[0]);
+        this.applicationProtocolSelector = config.applicationProtocolSelector();
+        SSLSession probe = context.createSSLEngine().getSession();
+        this.packetBufferSize = probe.getPacketBufferSize();
+        this.applicationBufferSize = probe.getApplicationBufferSize();
+    }
+
+    public SSLEngine newEngine() {
+        SSLEngine engine = context.createSSLEngine();
+        engine.setUseClientMode(false);
+        SSLParameters parameters = engine.getSSLParameters();
+        parameters.setProtocols(protocols);
+        parameters.setApplicationProtocols(applicationProtocols);
+        engine.setSSLParameters(parameters);
+        if (applicationProtocolSelector != null) {
+            engine.setHandshakeApplicationProtocolSelector(applicationProtocolSelector);
+        }
+        return engine;
+    }
+
+    public void handshakeCompleted(SSLSession session, long startedMillis) {
+        handshakes.increment();
+        if (session.getCreationTime() < startedMillis) {
+            resumed.increment();
+        }
+    }
+
+    public void handshakeFailed() {
+        failures.increment();
+    }
+
+    public int packetBufferSize() {
+        return packetBufferSize;
+    }
+
+    public int applicationBufferSize() {
+        return applicationBufferSize;
+    }
+
+    public long getHandshakes() {
+        return handshakes.sum();
+    }
+
+    public long getResumedHandshakes() {
+        return resumed.sum();
+    }
+
+    public long getHandshakeFailures() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package io.bytegate.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+public interface BodyTransfer extends Closeable {
+
+    boolean needsFill();
+
+    void fill() throws IOException;
+
+    void writeTo(WritableByteChannel channel) throws IOException;
+
+    boolean isComplete();
+}
@@ -0,0 +1,48 @@
+package io.bytegate.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+class FileRegionTransfer implements BodyTransfer {
+
+    private final FileChannel file;
+    private long position;
+    private long remaining;
+
+    FileRegionTransfer(FileChannel file, long position, long length) {
+        this.file = file;
+        this.position = position;
+        this.remaining = length;
+    }
+
+    @Override
+    public boolean needsFill() {
+        return false;
+    }
+
+    @Override
+    public void fill() {
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        long written = file.transferTo(position, remaining, channel);
+        if (written == 0 && position >= file.size()) {
+            throw new EOFException("File ended before the announced Content-Length");
+        }
+        position += written;
+        remaining -= written;
+    }
+
+    @Override
+    public boolean isComplete() {
+        return remaining == 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
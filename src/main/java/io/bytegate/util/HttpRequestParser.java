@@ -1,61 +1,664 @@
 package io.bytegate.util;
 
-import static java.net.URI.create;
-
 import io.bytegate.model.HttpRequest;
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 
 public class HttpRequestParser {
 
-    public static HttpRequest parse(InputStream input) throws java.io.IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(input));
-        String requestLine = reader.readLine();
-        if (requestLine == null || requestLine.isEmpty()) {
-            throw new RuntimeException("Empty request");
+    public static final int MAX_HEAD_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_REQUEST_LINE = 8 * 1024;
+    public static final int DEFAULT_MAX_HEADER_COUNT = 100;
+    public static final long DEFAULT_MAX_BODY_SIZE = 10L * 1024 * 1024;
+    public static final int DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_CHUNK_LINE = 1024;
+
+    private static final String[] KNOWN_METHODS = {
+            "GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS", "PATCH", "TRACE", "CONNECT"
+    };
+
+    private static final String HTTP_1_1 = "HTTP/1.1";
+    private static final String HTTP_1_0 = "HTTP/1.0";
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String TRANSFER_ENCODING = "Transfer-Encoding";
+
+    private static final String[] KNOWN_HEADERS = {
+            "Host", "Connection", CONTENT_LENGTH, "Content-Type", "Content-Encoding", TRANSFER_ENCODING,
+            "Accept", "Accept-Encoding", "Accept-Language", "Accept-Charset", "User-Agent", "Referer", "Origin",
+            "Cookie", "Authorization", "Cache-Control", "Pragma", "Expect", "Upgrade", "Keep-Alive", "Range",
+            "If-Match", "If-None-Match", "If-Modified-Since", "If-Unmodified-Since", "If-Range",
+            "X-Forwarded-For", "X-Forwarded-Proto", "X-Forwarded-Host", "X-Request-Id", "X-Real-IP"
+    };
+
+    private static final String[][] KNOWN_HEADERS_BY_LENGTH = indexByLength(KNOWN_HEADERS);
+
+    private enum BodyState { FIXED, CHUNK_SIZE, CHUNK_DATA, CHUNK_DATA_END, TRAILERS, COMPLETE }
+
+    private final InputStream input;
+    private final long maxBodySize;
+    private final int spillThreshold;
+    private final HttpRequest.Builder reusableBuilder;
+    private final ArrayDeque<HttpRequest> recycled;
+    private final int maxRequestLine;
+    private final int maxHeaderCount;
+    private final int maxHeadSize;
+
+    private byte[] buf;
+    private int start;
+    private int end;
+    private int scanPos;
+
+    private InetAddress remoteAddress;
+    private HttpRequest.Builder pending;
+    private String pendingMethod;
+    private int pendingHeaderCount;
+    private long pendingContentLength;
+    private boolean pendingChunked;
+    private boolean deferDiskWrites;
+    private boolean allowDiskWrites = true;
+    private boolean diskWritePending;
+    private BodyState bodyState;
+    private RequestBodyBuffer body;
+    private long bodyRemaining;
+    private int trailerCount;
+    private int trailerBytes;
+    private long pendingParseNanos;
+    private long lastParseNanos;
+
+    public HttpRequestParser() {
+        this(null);
+    }
+
+    public HttpRequestParser(InputStream input) {
+        this(input, DEFAULT_MAX_BODY_SIZE, DEFAULT_SPILL_THRESHOLD);
+    }
+
+    public HttpRequestParser(InputStream input, long maxBodySize, int spillThreshold) {
+        this(input, maxBodySize, spillThreshold, false);
+    }
+
+    public HttpRequestParser(InputStream input, long maxBodySize, int spillThreshold, boolean recycleRequests) {
+        this(input, maxBodySize, spillThreshold, recycleRequests, DEFAULT_MAX_REQUEST_LINE, DEFAULT_MAX_HEADER_COUNT,
+                MAX_HEAD_SIZE);
+    }
+
+    public HttpRequestParser(InputStream input, long maxBodySize, int spillThreshold, boolean recycleRequests,
+                             int maxRequestLine, int maxHeaderCount, int maxHeadSize) {
+        this.input = input;
+        this.maxBodySize = maxBodySize;
+        this.spillThreshold = spillThreshold;
+        this.reusableBuilder = recycleRequests ? HttpRequest.newBuilder() : null;
+        this.recycled = recycleRequests ? new ArrayDeque<>() : null;
+        this.maxRequestLine = maxRequestLine;
+        this.maxHeaderCount = maxHeaderCount;
+        this.maxHeadSize = maxHeadSize;
+    }
+
+    public void setRemoteAddress(InetAddress remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    public void deferDiskWrites(boolean defer) {
+        this.deferDiskWrites = defer;
+    }
+
+    public boolean isDiskWritePending() {
+        return diskWritePending;
+    }
+
+    public boolean hasSpilledBody() {
+        return body != null && body.isSpilled();
+    }
+
+    public void recycle(HttpRequest request) {
+        if (recycled != null) {
+            recycled.push(request);
+        }
+    }
+
+    public HttpRequest parse() throws IOException {
+        while (true) {
+            HttpRequest request = tryParse();
+            if (request != null) {
+                return request;
+            }
+            if (!fill()) {
+                if (pending == null && start == end) {
+                    return null;
+                }
+                throw new HttpParseException("Unexpected end of stream");
+            }
+        }
+    }
+
+    public void feed(ByteBuffer src) {
+        int count = src.remaining();
+        if (count > 0) {
+            ensureCapacity(count);
+            src.get(buf, end, count);
+            end += count;
+        }
+    }
+
+    public boolean hasBufferedData() {
+        return end > start || pending != null;
+    }
+
+    public boolean isReadingBody() {
+        return pending != null;
+    }
+
+    public HttpRequest tryParse() {
+        return tryParse(!deferDiskWrites);
+    }
+
+    public HttpRequest tryParseBlocking() {
+        return tryParse(true);
+    }
+
+    private HttpRequest tryParse(boolean diskWrites) {
+        allowDiskWrites = diskWrites;
+        diskWritePending = false;
+        long started = System.nanoTime();
+        HttpRequest request;
+        try {
+            request = parseBuffered();
+        } catch (HttpParseException e) {
+            pendingParseNanos = 0;
+            throw e;
+        }
+        pendingParseNanos += System.nanoTime() - started;
+        if (request != null) {
+            lastParseNanos = pendingParseNanos;
+            pendingParseNanos = 0;
+        }
+        return request;
+    }
+
+    public long lastParseNanos() {
+        return lastParseNanos;
+    }
+
+    private HttpRequest parseBuffered() {
+        if (pending == null) {
+            skipLeadingBlankLines();
+            int headEnd = findHeadEnd();
+            if (headEnd < 0) {
+                if (end - start > maxRequestLine && indexOf(buf, start, start + maxRequestLine + 1, (byte) '\n')
+                        > start + maxRequestLine) {
+                    throw requestLineTooLong();
+                }
+                if (end - start > maxHeadSize) {
+                    throw new HttpParseException(431, "Request head exceeds " + maxHeadSize + " bytes");
+                }
+                return null;
+            }
+            if (headEnd - start > maxHeadSize) {
+                throw new HttpParseException(431, "Request head exceeds " + maxHeadSize + " bytes");
+            }
+            parseHead(headEnd);
+            start = headEnd;
+            scanPos = headEnd;
+        }
+
+        if (!readBody()) {
+            return null;
+        }
+        if (!allowDiskWrites && hasSpilledBody()) {
+            diskWritePending = true;
+            return null;
+        }
+
+        HttpRequest.BodyPublisher bodyPublisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : body.publish();
+        HttpRequest request = pending.method(pendingMethod, bodyPublisher).build();
+
+        pending = null;
+        pendingMethod = null;
+        body = null;
+        scanPos = start;
+        if (start == end) {
+            start = 0;
+            end = 0;
+            scanPos = 0;
+        }
+        return request;
+    }
+
+    public void release() {
+        if (body != null) {
+            body.discard();
+            body = null;
+        }
+    }
+
+    public boolean fill() throws IOException {
+        if (input == null) {
+            return false;
+        }
+        ensureCapacity(1);
+        int read = input.read(buf, end, buf.length - end);
+        if (read == -1) {
+            return false;
+        }
+        end += read;
+        return true;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (buf == null) {
+            buf = new byte[Math.max(INITIAL_BUFFER_SIZE, extra)];
+            return;
+        }
+        if (end + extra <= buf.length) {
+            return;
+        }
+        int length = end - start;
+        if (start > 0 && length + extra <= buf.length) {
+            System.arraycopy(buf, start, buf, 0, length);
+        } else {
+            byte[] grown = new byte[Math.max(buf.length * 2, length + extra)];
+            System.arraycopy(buf, start, grown, 0, length);
+            buf = grown;
+        }
+        scanPos -= start;
+        start = 0;
+        end = length;
+    }
+
+    private void skipLeadingBlankLines() {
+        while (start < end && (buf[start] == '\r' || buf[start] == '\n')) {
+            start++;
         }
+        scanPos = Math.max(scanPos, start);
+    }
 
-        String[] parts = requestLine.split(" ");
-        if (parts.length < 3) {
-            throw new RuntimeException("Invalid request line: " + requestLine);
+    private int findHeadEnd() {
+        for (int i = scanPos; i < end; i++) {
+            if (buf[i] != '\n') {
+                continue;
+            }
+            if (i - 1 >= start && buf[i - 1] == '\n') {
+                return i + 1;
+            }
+            if (i - 2 >= start && buf[i - 1] == '\r' && buf[i - 2] == '\n') {
+                return i + 1;
+            }
         }
+        scanPos = end;
+        return -1;
+    }
 
-        String method = parts[0];
-        String path = parts[1];
+    private void parseHead(int headEnd) {
+        int lineEnd = indexOf(buf, start, headEnd, (byte) '\n');
+        if (lineEnd - start > maxRequestLine) {
+            throw requestLineTooLong();
+        }
+        parseRequestLine(start, trimCr(start, lineEnd));
 
-        HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(create(path));
+        pendingHeaderCount = 0;
+        pendingContentLength = -1;
+        pendingChunked = false;
+        String name = null;
+        String value = null;
+        int lineStart = lineEnd + 1;
+        while (lineStart < headEnd) {
+            lineEnd = indexOf(buf, lineStart, headEnd, (byte) '\n');
+            int contentEnd = trimCr(lineStart, lineEnd);
+            if (contentEnd == lineStart) {
+                break;
+            }
 
-        int contentLength = 0;
-        String line;
-        while ((line = reader.readLine()) != null && !line.isEmpty()) {
-            int colonIndex = line.indexOf(":");
-            if (colonIndex > 0) {
-                String headerName = line.substring(0, colonIndex).trim();
-                String headerValue = line.substring(colonIndex + 1).trim();
-                builder.header(headerName, headerValue);
-                if (headerName.equalsIgnoreCase("Content-Length")) {
-                    contentLength = Integer.parseInt(headerValue);
+            if (buf[lineStart] == ' ' || buf[lineStart] == '\t') {
+                if (name == null) {
+                    throw new HttpParseException("Folded header without a preceding header");
+                }
+                value = value + " " + decodeTrimmed(lineStart, contentEnd);
+            } else {
+                if (name != null) {
+                    addHeader(name, value);
+                }
+                int colon = indexOf(buf, lineStart, contentEnd, (byte) ':');
+                if (colon == contentEnd || colon == lineStart) {
+                    throw new HttpParseException("Invalid header line");
                 }
+                if (buf[colon - 1] == ' ' || buf[colon - 1] == '\t') {
+                    throw new HttpParseException("Whitespace before colon in header name");
+                }
+                name = headerName(lineStart, colon);
+                value = decodeTrimmed(colon + 1, contentEnd);
             }
+            lineStart = lineEnd + 1;
+        }
+        if (name != null) {
+            addHeader(name, value);
         }
 
-        HttpRequest.BodyPublisher bodyPublisher;
-        if (contentLength > 0) {
-            char[] body = new char[contentLength];
-            int totalRead = 0;
-            while (totalRead < contentLength) {
-                int read = reader.read(body, totalRead, contentLength - totalRead);
-                if (read == -1) break;
-                totalRead += read;
+        if (pendingChunked) {
+            if (pendingContentLength >= 0) {
+                throw new HttpParseException("Both Content-Length and Transfer-Encoding present");
+            }
+            body = new RequestBodyBuffer(-1, spillThreshold);
+            bodyState = BodyState.CHUNK_SIZE;
+        } else if (pendingContentLength > 0) {
+            if (pendingContentLength > maxBodySize) {
+                throw tooLarge();
             }
-            bodyPublisher = HttpRequest.BodyPublishers.ofString(new String(body, 0, totalRead));
+            body = new RequestBodyBuffer(pendingContentLength, spillThreshold);
+            bodyRemaining = pendingContentLength;
+            bodyState = BodyState.FIXED;
         } else {
-            bodyPublisher = HttpRequest.BodyPublishers.noBody();
+            bodyState = BodyState.COMPLETE;
+        }
+    }
+
+    private void parseRequestLine(int from, int to) {
+        int firstSpace = indexOf(buf, from, to, (byte) ' ');
+        int secondSpace = indexOf(buf, firstSpace + 1, to, (byte) ' ');
+        if (firstSpace == from || firstSpace >= to || secondSpace == firstSpace + 1 || secondSpace >= to) {
+            throw new HttpParseException("Invalid request line: " + ascii(from, to));
         }
+        if (!isToken(from, firstSpace)) {
+            throw new HttpParseException("Invalid method in request line: " + ascii(from, to));
+        }
+        if (!isVersion(secondSpace + 1, to)) {
+            throw new HttpParseException("Invalid HTTP version in request line: " + ascii(from, to));
+        }
+
+        pendingMethod = method(from, firstSpace);
+        pending = reusableBuilder != null
+                ? reusableBuilder.reset().reuse(recycled.poll())
+                : HttpRequest.newBuilder();
+        pending.target(new String(buf, firstSpace + 1, secondSpace - firstSpace - 1, StandardCharsets.UTF_8))
+                .version(version(secondSpace + 1, to))
+                .remoteAddress(remoteAddress);
+    }
+
+    private void addHeader(String name, String value) {
+        if (++pendingHeaderCount > maxHeaderCount) {
+            throw new HttpParseException(431, "Request has more than " + maxHeaderCount + " headers");
+        }
+        pending.header(name, value);
+        if (name == CONTENT_LENGTH) {
+            long contentLength = parseContentLength(value);
+            if (pendingContentLength >= 0 && pendingContentLength != contentLength) {
+                throw new HttpParseException("Conflicting Content-Length headers");
+            }
+            pendingContentLength = contentLength;
+        } else if (name == TRANSFER_ENCODING) {
+            if (!value.equalsIgnoreCase("chunked")) {
+                throw new HttpParseException(501, "Unsupported Transfer-Encoding: " + value);
+            }
+            pendingChunked = true;
+        }
+    }
+
+    private boolean readBody() {
+        try {
+            while (bodyState != BodyState.COMPLETE) {
+                if (!advanceBody()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (HttpParseException e) {
+            if (allowDiskWrites || !hasSpilledBody()) {
+                release();
+            }
+            throw e;
+        }
+    }
+
+    private boolean advanceBody() {
+        switch (bodyState) {
+            case FIXED, CHUNK_DATA -> {
+                int count = (int) Math.min(end - start, bodyRemaining);
+                if (count > 0) {
+                    if (!allowDiskWrites && body.writesToDisk(count)) {
+                        diskWritePending = true;
+                        return false;
+                    }
+                    body.write(buf, start, count);
+                    start += count;
+                    bodyRemaining -= count;
+                }
+                if (bodyRemaining > 0) {
+                    return false;
+                }
+                bodyState = bodyState == BodyState.FIXED ? BodyState.COMPLETE : BodyState.CHUNK_DATA_END;
+            }
+            case CHUNK_SIZE -> {
+                int lineEnd = findLineEnd(MAX_CHUNK_LINE);
+                if (lineEnd < 0) {
+                    return false;
+                }
+                long size = parseChunkSize(start, trimCr(start, lineEnd));
+                start = lineEnd + 1;
+                if (size == 0) {
+                    trailerCount = 0;
+                    trailerBytes = 0;
+                    bodyState = BodyState.TRAILERS;
+                } else {
+                    if (body.length() + size > maxBodySize) {
+                        throw tooLarge();
+                    }
+                    bodyRemaining = size;
+                    bodyState = BodyState.CHUNK_DATA;
+                }
+            }
+            case CHUNK_DATA_END -> {
+                int lineEnd = findLineEnd(2);
+                if (lineEnd < 0) {
+                    return false;
+                }
+                if (trimCr(start, lineEnd) != start) {
+                    throw new HttpParseException("Missing CRLF after chunk data");
+                }
+                start = lineEnd + 1;
+                bodyState = BodyState.CHUNK_SIZE;
+            }
+            case TRAILERS -> {
+                int lineEnd = indexOf(buf, start, end, (byte) '\n');
+                if (lineEnd >= end) {
+                    if (trailerBytes + end - start > maxHeadSize) {
+                        throw trailersTooLarge();
+                    }
+                    return false;
+                }
+                trailerBytes += lineEnd + 1 - start;
+                if (trailerBytes > maxHeadSize) {
+                    throw trailersTooLarge();
+                }
+                boolean lastLine = trimCr(start, lineEnd) == start;
+                if (!lastLine && buf[start] != ' ' && buf[start] != '\t' && ++trailerCount > maxHeaderCount) {
+                    throw new HttpParseException(431, "Request has more than " + maxHeaderCount + " trailer fields");
+                }
+                start = lineEnd + 1;
+                if (lastLine) {
+                    bodyState = BodyState.COMPLETE;
+                }
+            }
+            case COMPLETE -> {
+            }
+        }
+        return true;
+    }
+
+    private int findLineEnd(int maxLength) {
+        int lineEnd = indexOf(buf, start, end, (byte) '\n');
+        if (lineEnd < end) {
+            return lineEnd;
+        }
+        if (end - start > maxLength) {
+            throw new HttpParseException("Chunk framing line exceeds " + maxLength + " bytes");
+        }
+        return -1;
+    }
+
+    private long parseChunkSize(int from, int to) {
+        int sizeEnd = indexOf(buf, from, to, (byte) ';');
+        while (sizeEnd > from && (buf[sizeEnd - 1] == ' ' || buf[sizeEnd - 1] == '\t')) {
+            sizeEnd--;
+        }
+        if (sizeEnd == from || sizeEnd - from > 15) {
+            throw new HttpParseException("Invalid chunk size: " + ascii(from, to));
+        }
+        long size = 0;
+        for (int i = from; i < sizeEnd; i++) {
+            int digit = Character.digit(buf[i], 16);
+            if (digit < 0) {
+                throw new HttpParseException("Invalid chunk size: " + ascii(from, to));
+            }
+            size = size * 16 + digit;
+        }
+        return size;
+    }
+
+    private HttpParseException requestLineTooLong() {
+        return new HttpParseException(414, "Request line exceeds " + maxRequestLine + " bytes");
+    }
+
+    private HttpParseException tooLarge() {
+        return new HttpParseException(413, "Request body exceeds " + maxBodySize + " bytes");
+    }
 
-        builder.method(method, bodyPublisher);
-        return builder.build();
+    private HttpParseException trailersTooLarge() {
+        return new HttpParseException(431, "Request trailers exceed " + maxHeadSize + " bytes");
+    }
+
+    private static long parseContentLength(String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            throw new HttpParseException("Invalid Content-Length: " + value);
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new HttpParseException("Invalid Content-Length: " + value);
+            }
+            length = length * 10 + (c - '0');
+        }
+        return length;
+    }
+
+    private String method(int from, int to) {
+        for (String known : KNOWN_METHODS) {
+            if (equalsAscii(from, to, known, false)) {
+                return known;
+            }
+        }
+        return ascii(from, to);
+    }
+
+    private String version(int from, int to) {
+        if (equalsAscii(from, to, HTTP_1_1, false)) {
+            return HTTP_1_1;
+        }
+        if (equalsAscii(from, to, HTTP_1_0, false)) {
+            return HTTP_1_0;
+        }
+        return ascii(from, to);
+    }
+
+    private String headerName(int from, int to) {
+        int length = to - from;
+        if (length < KNOWN_HEADERS_BY_LENGTH.length && KNOWN_HEADERS_BY_LENGTH[length] != null) {
+            for (String known : KNOWN_HEADERS_BY_LENGTH[length]) {
+                if (equalsAscii(from, to, known, true)) {
+                    return known;
+                }
+            }
+        }
+        if (!isToken(from, to)) {
+            throw new HttpParseException("Invalid header name: " + ascii(from, to));
+        }
+        return ascii(from, to);
+    }
+
+    private boolean equalsAscii(int from, int to, String expected, boolean ignoreCase) {
+        if (to - from != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            int actual = buf[from + i];
+            int wanted = expected.charAt(i);
+            if (actual != wanted && (!ignoreCase || toLower(actual) != toLower(wanted))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isToken(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buf[i];
+            boolean alphaNumeric = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9');
+            if (!alphaNumeric && "!#$%&'*+-.^_`|~".indexOf(b) < 0) {
+                return false;
+            }
+        }
+        return to > from;
+    }
+
+    private boolean isVersion(int from, int to) {
+        return to - from == 8
+                && equalsAscii(from, from + 5, "HTTP/", false)
+                && Character.isDigit(buf[from + 5])
+                && buf[from + 6] == '.'
+                && Character.isDigit(buf[from + 7]);
+    }
+
+    private String decodeTrimmed(int from, int to) {
+        while (from < to && (buf[from] == ' ' || buf[from] == '\t')) {
+            from++;
+        }
+        while (to > from && (buf[to - 1] == ' ' || buf[to - 1] == '\t')) {
+            to--;
+        }
+        return new String(buf, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private String ascii(int from, int to) {
+        return new String(buf, from, to - from, StandardCharsets.ISO_8859_1);
+    }
+
+    private int trimCr(int from, int lineEnd) {
+        return lineEnd > from && buf[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte target) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int toLower(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static String[][] indexByLength(String[] names) {
+        int maxLength = 0;
+        for (String name : names) {
+            maxLength = Math.max(maxLength, name.length());
+        }
+        String[][] index = new String[maxLength + 1][];
+        for (String name : names) {
+            String[] bucket = index[name.length()];
+            bucket = bucket == null ? new String[1] : Arrays.copyOf(bucket, bucket.length + 1);
+            bucket[bucket.length - 1] = name;
+            index[name.length()] = bucket;
+        }
+        return index;
     }
 }
@@ -1,36 +1,418 @@
 package io.bytegate.util;
 
+import io.bytegate.model.Headers;
 import io.bytegate.model.HttpResponse;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 public class HttpResponseWriter {
 
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int INLINE_BODY_LIMIT = 16 * 1024;
+    private static final long CHUNKED = -1;
+    private static final long NO_BODY = -2;
+
+    private static final byte[] HTTP_1_1 = ascii("HTTP/1.1 ");
+    private static final byte[] CRLF = ascii("\r\n");
+    private static final byte[] HEADER_SEPARATOR = ascii(": ");
+    private static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    private static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive\r\n");
+    private static final byte[] CONNECTION_CLOSE = ascii("Connection: close\r\n");
+    private static final byte[] TRANSFER_ENCODING_CHUNKED = ascii("Transfer-Encoding: chunked\r\n");
+
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final Map<String, byte[]> CONTENT_TYPE_LINES = Map.of(
+            "text/plain", ascii("Content-Type: text/plain\r\n"),
+            "text/html", ascii("Content-Type: text/html\r\n"),
+            "application/json", ascii("Content-Type: application/json\r\n"),
+            "application/octet-stream", ascii("Content-Type: application/octet-stream\r\n"));
+
+    private static final String[] REASON_PHRASES = new String[600];
+    private static final byte[][] STATUS_LINES = new byte[600][];
+
+    static {
+        reason(200, "OK");
+        reason(201, "Created");
+        reason(202, "Accepted");
+        reason(204, "No Content");
+        reason(206, "Partial Content");
+        reason(301, "Moved Permanently");
+        reason(302, "Found");
+        reason(304, "Not Modified");
+        reason(400, "Bad Request");
+        reason(401, "Unauthorized");
+        reason(403, "Forbidden");
+        reason(404, "Not Found");
+        reason(405, "Method Not Allowed");
+        reason(408, "Request Timeout");
+        reason(413, "Payload Too Large");
+        reason(416, "Range Not Satisfiable");
+        reason(429, "Too Many Requests");
+        reason(500, "Internal Server Error");
+        reason(501, "Not Implemented");
+        reason(502, "Bad Gateway");
+        reason(503, "Service Unavailable");
+        reason(504, "Gateway Timeout");
+    }
+
+    private static final Map<HttpResponse, ByteBuffer[]> PRE_ENCODED = Map.of(
+            HttpResponse.notFound(), preEncode(HttpResponse.notFound()),
+            HttpResponse.serviceUnavailable(), preEncode(HttpResponse.serviceUnavailable()),
+            HttpResponse.internalServerError(), preEncode(HttpResponse.internalServerError()));
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int position;
+    private final ByteBuffer[] single = new ByteBuffer[1];
+    private final ByteBuffer[] pair = new ByteBuffer[2];
+    private final List<ByteBuffer> batchBodies = new ArrayList<>();
+    private int[] batchSplits = new int[4];
+    private BodyTransfer transfer;
+
     public static void write(OutputStream output, HttpResponse response) throws IOException {
-        StringBuilder sb = new StringBuilder();
+        write(output, response, false);
+    }
+
+    public static void write(OutputStream output, HttpResponse response, boolean keepAlive) throws IOException {
+        new HttpResponseWriter().send(output, response, keepAlive);
+    }
+
+    public void send(OutputStream output, HttpResponse response, boolean keepAlive) throws IOException {
+        write(output, encode(response, keepAlive));
+    }
 
-        sb.append("HTTP/1.1 ")
-                .append(response.getStatusCode())
-                .append(" ")
-                .append(response.getReasonPhrase())
-                .append("\r\n");
+    public void send(GatheringByteChannel channel, HttpResponse response, boolean keepAlive) throws IOException {
+        write(channel, encode(response, keepAlive));
+    }
 
-        byte[] bodyBytes = response.getBody().getBytes(StandardCharsets.UTF_8);
+    public void write(OutputStream output, ByteBuffer[] parts) throws IOException {
+        for (ByteBuffer part : parts) {
+            if (part.hasArray()) {
+                output.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+            } else {
+                byte[] copy = new byte[part.remaining()];
+                part.get(copy);
+                output.write(copy);
+            }
+        }
+        transferBody(Channels.newChannel(output));
+        output.flush();
+    }
 
-        for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
-            sb.append(header.getKey())
-                    .append(": ")
-                    .append(header.getValue())
-                    .append("\r\n");
+    public void write(GatheringByteChannel channel, ByteBuffer[] parts) throws IOException {
+        ByteBuffer last = parts[parts.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(parts);
         }
+        transferBody(channel);
+    }
 
-        sb.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
-        sb.append("\r\n");
+    public ByteBuffer[] encode(HttpResponse response, boolean keepAlive) throws IOException {
+        return encode(response, keepAlive, true);
+    }
 
-        output.write(sb.toString().getBytes(StandardCharsets.UTF_8));
-        output.write(bodyBytes);
-        output.flush();
+    public ByteBuffer[] encode(HttpResponse response, boolean keepAlive, boolean chunked) throws IOException {
+        transfer = null;
+        ByteBuffer[] cached = PRE_ENCODED.get(response);
+        if (cached != null) {
+            single[0] = cached[keepAlive ? 1 : 0].duplicate();
+            return single;
+        }
+        if (isBodiless(response.getStatusCode())) {
+            discard(response.getContent());
+            return head(response, keepAlive, NO_BODY);
+        }
+        return switch (response.getContent()) {
+            case HttpResponse.Body.Bytes bytes -> encodeBytes(response, keepAlive, bytes.content().duplicate());
+            case HttpResponse.Body.FileRegion region -> encodeFileRegion(response, keepAlive, region);
+            case HttpResponse.Body.Stream stream -> encodeStream(response, keepAlive, stream, chunked);
+        };
+    }
+
+    public static boolean isCloseDelimited(HttpResponse response, boolean chunked) {
+        return !chunked && !isBodiless(response.getStatusCode())
+                && response.getContent() instanceof HttpResponse.Body.Stream stream && stream.length() < 0;
+    }
+
+    public int batchEnd(HttpResponse[] responses, int from, int to) {
+        int end = from;
+        while (end < to && isBatchable(responses[end])) {
+            end++;
+        }
+        return end == from ? from + 1 : end;
+    }
+
+    public ByteBuffer[] encode(HttpResponse[] responses, int from, int to, boolean keepAlive) throws IOException {
+        return encode(responses, from, to, keepAlive, true);
+    }
+
+    public ByteBuffer[] encode(HttpResponse[] responses, int from, int to, boolean keepAlive, boolean chunked)
+            throws IOException {
+        if (to - from == 1) {
+            return encode(responses[from], keepAlive, chunked);
+        }
+        transfer = null;
+        position = 0;
+        batchBodies.clear();
+        for (int i = from; i < to; i++) {
+            appendBatched(responses[i], i < to - 1 || keepAlive);
+        }
+
+        int bodies = batchBodies.size();
+        ByteBuffer[] parts = new ByteBuffer[2 * bodies + 1];
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i < bodies; i++) {
+            parts[count++] = ByteBuffer.wrap(buffer, start, batchSplits[i] - start);
+            parts[count++] = batchBodies.get(i);
+            start = batchSplits[i];
+        }
+        if (position > start) {
+            parts[count++] = ByteBuffer.wrap(buffer, start, position - start);
+        }
+        batchBodies.clear();
+        return count == parts.length ? parts : Arrays.copyOf(parts, count);
+    }
+
+    private void appendBatched(HttpResponse response, boolean keepAlive) {
+        ByteBuffer[] cached = PRE_ENCODED.get(response);
+        if (cached != null) {
+            put(cached[keepAlive ? 1 : 0].duplicate());
+            return;
+        }
+        if (isBodiless(response.getStatusCode())) {
+            discard(response.getContent());
+            appendHead(response, keepAlive, NO_BODY);
+            return;
+        }
+        ByteBuffer body = ((HttpResponse.Body.Bytes) response.getContent()).content().duplicate();
+        int length = body.remaining();
+        appendHead(response, keepAlive, length);
+        if (length <= INLINE_BODY_LIMIT) {
+            put(body);
+            return;
+        }
+        if (batchBodies.size() == batchSplits.length) {
+            batchSplits = Arrays.copyOf(batchSplits, batchSplits.length * 2);
+        }
+        batchSplits[batchBodies.size()] = position;
+        batchBodies.add(body);
+    }
+
+    private static boolean isBatchable(HttpResponse response) {
+        return isBodiless(response.getStatusCode()) || response.getContent() instanceof HttpResponse.Body.Bytes;
+    }
+
+    public BodyTransfer takeBodyTransfer() {
+        BodyTransfer body = transfer;
+        transfer = null;
+        return body;
+    }
+
+    private void transferBody(WritableByteChannel channel) throws IOException {
+        BodyTransfer body = takeBodyTransfer();
+        if (body == null) {
+            return;
+        }
+        try (body) {
+            while (!body.isComplete()) {
+                if (body.needsFill()) {
+                    body.fill();
+                }
+                body.writeTo(channel);
+            }
+        }
+    }
+
+    private ByteBuffer[] encodeBytes(HttpResponse response, boolean keepAlive, ByteBuffer body) {
+        int length = body.remaining();
+        putHead(response, keepAlive, length);
+
+        if (length <= INLINE_BODY_LIMIT) {
+            put(body);
+            single[0] = ByteBuffer.wrap(buffer, 0, position);
+            return single;
+        }
+        pair[0] = ByteBuffer.wrap(buffer, 0, position);
+        pair[1] = body;
+        return pair;
+    }
+
+    private ByteBuffer[] encodeFileRegion(HttpResponse response, boolean keepAlive, HttpResponse.Body.FileRegion region)
+            throws IOException {
+        FileChannel file = FileChannel.open(region.file(), StandardOpenOption.READ);
+        long length;
+        try {
+            length = region.length() >= 0 ? region.length() : Math.max(0, file.size() - region.position());
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        transfer = new FileRegionTransfer(file, region.position(), length);
+        return head(response, keepAlive, length);
+    }
+
+    private ByteBuffer[] encodeStream(HttpResponse response, boolean keepAlive, HttpResponse.Body.Stream stream,
+                                      boolean chunked) {
+        if (stream.length() >= 0) {
+            transfer = new StreamTransfer(stream.input(), stream.length(), false);
+            return head(response, keepAlive, stream.length());
+        }
+        transfer = new StreamTransfer(stream.input(), -1, chunked);
+        return head(response, keepAlive && chunked, chunked ? CHUNKED : NO_BODY);
+    }
+
+    private ByteBuffer[] head(HttpResponse response, boolean keepAlive, long contentLength) {
+        putHead(response, keepAlive, contentLength);
+        single[0] = ByteBuffer.wrap(buffer, 0, position);
+        return single;
+    }
+
+    private void putHead(HttpResponse response, boolean keepAlive, long contentLength) {
+        position = 0;
+        appendHead(response, keepAlive, contentLength);
+    }
+
+    private void appendHead(HttpResponse response, boolean keepAlive, long contentLength) {
+        putStatusLine(response.getStatusCode(), response.getReasonPhrase());
+        Headers headers = response.getHeaders();
+        for (int i = 0; i < headers.size(); i++) {
+            putHeader(headers.name(i), headers.value(i));
+        }
+        if (contentLength >= 0) {
+            put(CONTENT_LENGTH);
+            putDecimal(contentLength);
+            put(CRLF);
+        } else if (contentLength == CHUNKED) {
+            put(TRANSFER_ENCODING_CHUNKED);
+        }
+        put(keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE);
+        put(CRLF);
+    }
+
+    private static boolean isBodiless(int statusCode) {
+        return statusCode < 200 || statusCode == 204 || statusCode == 304;
+    }
+
+    private static void discard(HttpResponse.Body body) {
+        if (body instanceof HttpResponse.Body.Stream stream) {
+            try {
+                stream.input().close();
+            } catch (IOException e) {
+                // Best effort: the response is complete without the body.
+            }
+        }
+    }
+
+    private void putStatusLine(int statusCode, String reasonPhrase) {
+        if (statusCode >= 0 && statusCode < STATUS_LINES.length && reasonPhrase.equals(REASON_PHRASES[statusCode])) {
+            put(STATUS_LINES[statusCode]);
+            return;
+        }
+        put(HTTP_1_1);
+        putDecimal(statusCode);
+        putText(" ");
+        putText(reasonPhrase);
+        put(CRLF);
+    }
+
+    private void putHeader(String name, String value) {
+        if (name.equals(CONTENT_TYPE)) {
+            byte[] line = CONTENT_TYPE_LINES.get(value);
+            if (line != null) {
+                put(line);
+                return;
+            }
+        }
+        putText(name);
+        put(HEADER_SEPARATOR);
+        putText(value);
+        put(CRLF);
+    }
+
+    private void put(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void put(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        ensureCapacity(length);
+        bytes.get(bytes.position(), buffer, position, length);
+        position += length;
+    }
+
+    private void putText(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                put(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer[position++] = (byte) c;
+        }
+    }
+
+    private void putDecimal(long value) {
+        if (value < 0) {
+            putText(Long.toString(value));
+            return;
+        }
+        int digits = 1;
+        for (long remaining = value; remaining >= 10; remaining /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (buffer.length - position < needed) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + needed));
+        }
+    }
+
+    private static ByteBuffer[] preEncode(HttpResponse response) {
+        HttpResponseWriter writer = new HttpResponseWriter();
+        return new ByteBuffer[]{
+                copyOf(writer.encodeBytes(response, false, bytesOf(response))[0]),
+                copyOf(writer.encodeBytes(response, true, bytesOf(response))[0])
+        };
+    }
+
+    private static ByteBuffer bytesOf(HttpResponse response) {
+        return ((HttpResponse.Body.Bytes) response.getContent()).content().duplicate();
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer source) {
+        ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+        copy.put(source).flip();
+        return copy;
+    }
+
+    private static void reason(int statusCode, String reasonPhrase) {
+        REASON_PHRASES[statusCode] = reasonPhrase;
+        STATUS_LINES[statusCode] = ascii("HTTP/1.1 " + statusCode + " " + reasonPhrase + "\r\n");
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
     }
 }
@@ -0,0 +1,103 @@
+package io.bytegate.util;
+
+import io.bytegate.model.HttpRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class RequestBodyBuffer {
+
+    private static final int INITIAL_CHUNKED_CAPACITY = 8 * 1024;
+
+    private final int spillThreshold;
+
+    private byte[] memory;
+    private long length;
+    private Path file;
+    private OutputStream fileOutput;
+
+    RequestBodyBuffer(long expectedLength, int spillThreshold) {
+        this.spillThreshold = spillThreshold;
+        if (expectedLength <= spillThreshold) {
+            memory = new byte[expectedLength >= 0 ? (int) expectedLength : Math.min(INITIAL_CHUNKED_CAPACITY, spillThreshold)];
+        }
+    }
+
+    long length() {
+        return length;
+    }
+
+    boolean isSpilled() {
+        return file != null;
+    }
+
+    boolean writesToDisk(int count) {
+        return file != null || memory == null || length + count > spillThreshold;
+    }
+
+    void write(byte[] bytes, int offset, int count) {
+        if (file == null && (memory == null || length + count > spillThreshold)) {
+            spill();
+        }
+        if (file != null) {
+            try {
+                fileOutput.write(bytes, offset, count);
+            } catch (IOException e) {
+                throw failure("Failed to write request body to " + file, e);
+            }
+        } else {
+            if (length + count > memory.length) {
+                memory = Arrays.copyOf(memory, (int) Math.min(spillThreshold, Math.max(memory.length * 2L, length + count)));
+            }
+            System.arraycopy(bytes, offset, memory, (int) length, count);
+        }
+        length += count;
+    }
+
+    HttpRequest.BodyPublisher publish() {
+        if (file == null) {
+            byte[] bytes = memory.length == length ? memory : Arrays.copyOf(memory, (int) length);
+            return HttpRequest.BodyPublishers.ofBytes(bytes);
+        }
+        try {
+            fileOutput.close();
+        } catch (IOException e) {
+            throw failure("Failed to write request body to " + file, e);
+        }
+        return HttpRequest.BodyPublishers.ofFile(file, length);
+    }
+
+    void discard() {
+        if (file == null) {
+            return;
+        }
+        try {
+            fileOutput.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Best effort: the temp file is left behind if it cannot be removed.
+        }
+        file = null;
+    }
+
+    private void spill() {
+        try {
+            file = Files.createTempFile("bytegate-body-", ".tmp");
+            fileOutput = Files.newOutputStream(file);
+            if (length > 0) {
+                fileOutput.write(memory, 0, (int) length);
+            }
+        } catch (IOException e) {
+            throw failure("Failed to spill request body to disk", e);
+        }
+        memory = null;
+    }
+
+    private HttpParseException failure(String message, IOException cause) {
+        HttpParseException exception = new HttpParseException(500, message + ": " + cause.getMessage());
+        exception.initCause(cause);
+        return exception;
+    }
+}
@@ -0,0 +1,91 @@
+package io.bytegate.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+class StreamTransfer implements BodyTransfer {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int CHUNK_HEADER_RESERVE = 10;
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final InputStream input;
+    private final boolean chunked;
+    private final byte[] chunk = new byte[CHUNK_HEADER_RESERVE + CHUNK_SIZE + CRLF.length];
+    private ByteBuffer pending = ByteBuffer.allocate(0);
+    private long remaining;
+    private boolean finished;
+
+    StreamTransfer(InputStream input, long length, boolean chunked) {
+        this.input = input;
+        this.chunked = chunked;
+        this.remaining = length;
+        this.finished = length == 0;
+    }
+
+    @Override
+    public boolean needsFill() {
+        return !finished && !pending.hasRemaining();
+    }
+
+    @Override
+    public void fill() throws IOException {
+        int limit = remaining < 0 ? CHUNK_SIZE : (int) Math.min(CHUNK_SIZE, remaining);
+        int read = input.read(chunk, CHUNK_HEADER_RESERVE, limit);
+
+        if (read == 0) {
+            return;
+        }
+        if (read < 0) {
+            if (remaining >= 0) {
+                throw new EOFException("Response body stream ended " + remaining + " bytes early");
+            }
+            finished = true;
+            pending = chunked ? ByteBuffer.wrap(LAST_CHUNK) : ByteBuffer.allocate(0);
+            return;
+        }
+
+        if (!chunked) {
+            if (remaining > 0) {
+                remaining -= read;
+                finished = remaining == 0;
+            }
+            pending = ByteBuffer.wrap(chunk, CHUNK_HEADER_RESERVE, read);
+            return;
+        }
+
+        int start = CHUNK_HEADER_RESERVE - CRLF.length;
+        System.arraycopy(CRLF, 0, chunk, start, CRLF.length);
+        for (int size = read; size > 0; size >>>= 4) {
+            chunk[--start] = HEX[size & 0xF];
+        }
+        int end = CHUNK_HEADER_RESERVE + read;
+        System.arraycopy(CRLF, 0, chunk, end, CRLF.length);
+        pending = ByteBuffer.wrap(chunk, start, end + CRLF.length - start);
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        while (pending.hasRemaining()) {
+            if (channel.write(pending) == 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isComplete() {
+        return finished && !pending.hasRemaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -10,6 +10,7 @@ public class Client {
 
         WebServer server = new WebServer.Builder()
                 .controller(new NoteController(noteService))
+                .bulkhead("search", 4, 16)
                 .controller(new KeywordSearchHandler())
                 .withDefaultParameters()
                 .logLevel(LogLevel.DEBUG)
@@ -12,7 +12,7 @@ public class KeywordSearchHandler {
         this.fileSearchService = new FileSearchService();
     }
 
-    @Route(method = "GET", path = "/api/search")
+    @Route(method = "GET", path = "/api/search", cacheSeconds = 30, cacheKeyParams = "keyword", bulkhead = "search")
     public HttpResponse search(HttpRequest request) {
         String keyword = request.getQueryParam("keyword");
         if (keyword == null || keyword.isEmpty()) {
@@ -0,0 +1,129 @@
+package io.bytegate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.bytegate.admission.Priority;
+import io.bytegate.cache.CachePolicy;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RequestRouterTest {
+
+    private static final RouteHandler STATIC = request -> null;
+    private static final RouteHandler PARAM = request -> null;
+    private static final RouteHandler NESTED = request -> null;
+    private static final RouteHandler WILDCARD = request -> null;
+
+    private static RequestRouter router() {
+        RequestRouter router = new RequestRouter();
+        router.register("GET", "/users/me", STATIC);
+        router.register("GET", "/users/{id}", PARAM);
+        router.register("GET", "/users/{id}/posts", NESTED);
+        router.register("GET", "/users/*", WILDCARD);
+        return router;
+    }
+
+    @Test
+    void staticSegmentsWinOverParameters() {
+        RouteMatch match = router().resolve("GET", "/users/me");
+
+        assertSame(STATIC, match.handler());
+        assertEquals(Map.of(), match.pathParams());
+    }
+
+    @Test
+    void parametersWinOverWildcards() {
+        RouteMatch match = router().resolve("GET", "/users/42");
+
+        assertSame(PARAM, match.handler());
+        assertEquals(Map.of("id", "42"), match.pathParams());
+    }
+
+    @Test
+    void backtracksFromAStaticSegmentToAParameter() {
+        RouteMatch match = router().resolve("GET", "/users/me/posts");
+
+        assertSame(NESTED, match.handler());
+        assertEquals(Map.of("id", "me"), match.pathParams());
+    }
+
+    @Test
+    void wildcardCatchesTheRemainingPath() {
+        RouteMatch match = router().resolve("GET", "/users/42/comments/7");
+
+        assertSame(WILDCARD, match.handler());
+        assertEquals(Map.of("*", "42/comments/7"), match.pathParams());
+    }
+
+    @Test
+    void namedWildcardBindsItsName() {
+        RequestRouter router = new RequestRouter();
+        router.register("GET", "/static/{*file}", WILDCARD);
+
+        assertEquals(Map.of("file", "css/site.css"), router.resolve("GET", "/static/css/site.css").pathParams());
+    }
+
+    @Test
+    void unmatchedPathsAndMethodsResolveToNull() {
+        RequestRouter router = router();
+
+        assertNull(router.resolve("GET", "/accounts/1"));
+        assertNull(router.resolve("POST", "/users/me"));
+        assertNull(router.resolve("GET", "users/me"));
+    }
+
+    @Test
+    void intermediateNodesWithoutAHandlerDoNotMatch() {
+        RequestRouter router = new RequestRouter();
+        router.register("GET", "/a/b/c", STATIC);
+        router.register("GET", "/a/{id}/d", PARAM);
+
+        assertNull(router.resolve("GET", "/a/b"));
+        assertNull(router.resolve("GET", "/a/b/x"));
+        assertSame(PARAM, router.resolve("GET", "/a/b/d").handler());
+    }
+
+    @Test
+    void wildcardWithoutAHandlerDoesNotMatch() {
+        RequestRouter router = new RequestRouter();
+        router.register("GET", "/files/index", STATIC);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> router.cache("GET", "/files/*", CachePolicy.of(Duration.ofSeconds(1))));
+        assertNull(router.resolve("GET", "/files/report.pdf"));
+    }
+
+    @Test
+    void policiesApplyToRegisteredRoutes() {
+        RequestRouter router = router();
+        router.priority("GET", "/users/{id}", Priority.HIGH);
+        router.bulkhead("GET", "/users/*", "files");
+
+        assertEquals(Priority.HIGH, router.resolve("GET", "/users/42").priority());
+        assertEquals(Priority.NORMAL, router.resolve("GET", "/users/me").priority());
+        assertEquals("files", router.resolve("GET", "/users/42/x").bulkhead());
+    }
+
+    @Test
+    void policiesForUnregisteredRoutesAreRejected() {
+        RequestRouter router = router();
+
+        assertThrows(IllegalArgumentException.class, () -> router.priority("GET", "/users", Priority.LOW));
+        assertThrows(IllegalArgumentException.class, () -> router.priority("POST", "/users/me", Priority.LOW));
+        assertThrows(IllegalArgumentException.class, () -> router.bulkhead("GET", "/users/{id}/likes", "b"));
+        assertThrows(IllegalArgumentException.class,
+                () -> router.timeout("GET", "/orders/{id}", Duration.ofSeconds(1)));
+        assertNull(router.resolve("GET", "/users"));
+    }
+
+    @Test
+    void timeoutsRequireAnAsyncHandler() {
+        RequestRouter router = router();
+
+        assertThrows(IllegalArgumentException.class, () -> router.timeout("GET", "/users/me", Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,49 @@
+package io.bytegate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class ThreadPoolManagerTest {
+
+    @Test
+    void offeredTasksAreNotCountedAsRejectedWhenThePoolIsFull() throws InterruptedException {
+        assertRejectionCounting(ThreadPoolManager.createBounded(1, 0, "test-worker-"));
+    }
+
+    @Test
+    void offeredTasksAreNotCountedAsRejectedWhenVirtualThreadsAreExhausted() throws InterruptedException {
+        assertRejectionCounting(ThreadPoolManager.createVirtual(1, "test-vworker-"));
+    }
+
+    private static void assertRejectionCounting(ThreadPoolManager pool) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            assertTrue(pool.submitTask(() -> {
+                started.countDown();
+                await(release);
+            }));
+            started.await();
+
+            assertFalse(pool.offerTask(() -> { }));
+            assertEquals(0, pool.getRejectedCount());
+            assertFalse(pool.submitTask(() -> { }));
+            assertEquals(1, pool.getRejectedCount());
+        } finally {
+            release.countDown();
+            pool.close();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.bytegate.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+    private static AdmissionController controller(int limit) {
+        return new AdmissionController(limit, 1, 1000, Duration.ofSeconds(10), Duration.ofMillis(1500));
+    }
+
+    @Test
+    void admitsUpToTheLimitAndCountsRejectionsByPriority() {
+        AdmissionController admission = controller(10);
+        List<AdmissionController.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            permits.add(admission.tryAcquire(Priority.HIGH));
+        }
+
+        assertNull(admission.tryAcquire(Priority.HIGH));
+        assertNull(admission.tryAcquire(Priority.LOW));
+        assertEquals(10, admission.getInFlight());
+        assertEquals(1, admission.getRejected(Priority.HIGH));
+        assertEquals(1, admission.getRejected(Priority.LOW));
+        assertEquals(0, admission.getRejected(Priority.NORMAL));
+
+        permits.forEach(AdmissionController.Permit::release);
+        assertEquals(0, admission.getInFlight());
+    }
+
+    @Test
+    void lowerPrioritiesGetAShareOfTheLimit() {
+        AdmissionController admission = controller(10);
+        for (int i = 0; i < 7; i++) {
+            assertNotNull(admission.tryAcquire(Priority.LOW));
+        }
+        assertNull(admission.tryAcquire(Priority.LOW));
+        assertNotNull(admission.tryAcquire(Priority.NORMAL));
+        assertNotNull(admission.tryAcquire(Priority.NORMAL));
+        assertNull(admission.tryAcquire(Priority.NORMAL));
+        assertNotNull(admission.tryAcquire(Priority.HIGH));
+        assertNull(admission.tryAcquire(Priority.HIGH));
+    }
+
+    @Test
+    void dropCountsAnExpiryAndCutsTheLimit() {
+        AdmissionController admission = controller(100);
+        admission.tryAcquire(Priority.HIGH).drop();
+
+        assertEquals(1, admission.getExpired());
+        assertEquals(90, admission.getLimit());
+        assertEquals(0, admission.getInFlight());
+    }
+
+    @Test
+    void abortReturnsThePermitWithoutASample() {
+        AdmissionController admission = controller(100);
+        admission.tryAcquire(Priority.HIGH).abort();
+
+        assertEquals(0, admission.getExpired());
+        assertEquals(100, admission.getLimit());
+        assertEquals(0, admission.getInFlight());
+    }
+
+    @Test
+    void permitCompletesOnlyOnce() {
+        AdmissionController admission = controller(100);
+        admission.tryAcquire(Priority.HIGH);
+        AdmissionController.Permit permit = admission.tryAcquire(Priority.HIGH);
+
+        permit.release();
+        permit.drop();
+        permit.abort();
+
+        assertEquals(1, admission.getInFlight());
+        assertEquals(0, admission.getExpired());
+        assertEquals(100, admission.getLimit());
+    }
+
+    @Test
+    void racingCompletionsReleaseThePermitOnce() throws InterruptedException {
+        AdmissionController admission = controller(1000);
+        int rounds = 2_000;
+        CyclicBarrier started = new CyclicBarrier(2);
+        CyclicBarrier finished = new CyclicBarrier(2);
+        AdmissionController.Permit[] permit = new AdmissionController.Permit[1];
+        Thread timer = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                await(started);
+                permit[0].drop();
+                await(finished);
+            }
+        });
+        timer.start();
+
+        for (int i = 0; i < rounds; i++) {
+            permit[0] = admission.tryAcquire(Priority.HIGH);
+            await(started);
+            permit[0].release();
+            await(finished);
+            assertEquals(0, admission.getInFlight(), "round " + i);
+        }
+        timer.join();
+        assertTrue(admission.getExpired() <= rounds);
+    }
+
+    @Test
+    void permitsExpireAfterTheQueueWait() throws InterruptedException {
+        AdmissionController admission = new AdmissionController(10, 1, 10, Duration.ofMillis(1), Duration.ZERO);
+        AdmissionController.Permit permit = admission.tryAcquire(Priority.NORMAL);
+        Thread.sleep(5);
+
+        assertTrue(permit.isExpired());
+        assertFalse(AdmissionController.Permit.UNLIMITED.isExpired());
+    }
+
+    @Test
+    void overloadedResponseCarriesRetryAfterInWholeSeconds() {
+        assertEquals(503, controller(10).overloadedResponse().getStatusCode());
+        assertEquals("2", controller(10).overloadedResponse().getHeader("Retry-After"));
+    }
+
+    @Test
+    void rejectsInconsistentLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionController(5, 10, 20, Duration.ofSeconds(1), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionController(10, 1, 20, Duration.ZERO, Duration.ZERO));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
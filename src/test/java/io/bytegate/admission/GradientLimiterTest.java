@@ -0,0 +1,95 @@
+package io.bytegate.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GradientLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void firstSampleOnlySetsTheBaseline() {
+        GradientLimiter limiter = new GradientLimiter(100, 1, 1000);
+        limiter.onSample(10 * MILLIS, 100, false);
+
+        assertEquals(100, limiter.limit());
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlatAndTheLimitIsUsed() {
+        GradientLimiter limiter = new GradientLimiter(100, 1, 1000);
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(10 * MILLIS, limiter.limit(), false);
+        }
+
+        assertTrue(limiter.limit() > 100, "limit " + limiter.limit());
+    }
+
+    @Test
+    void holdsTheLimitWhenMostOfItIsUnused() {
+        GradientLimiter limiter = new GradientLimiter(100, 1, 1000);
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(10 * MILLIS, 10, false);
+        }
+
+        assertEquals(100, limiter.limit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRises() {
+        GradientLimiter limiter = new GradientLimiter(100, 1, 1000);
+        limiter.onSample(10 * MILLIS, 100, false);
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(200 * MILLIS, 100, false);
+        }
+
+        assertTrue(limiter.limit() < 100, "limit " + limiter.limit());
+    }
+
+    @Test
+    void dropCutsTheLimitByATenth() {
+        GradientLimiter limiter = new GradientLimiter(100, 1, 1000);
+        limiter.onSample(0, 100, true);
+
+        assertEquals(90, limiter.limit());
+    }
+
+    @Test
+    void staysWithinTheConfiguredBounds() {
+        GradientLimiter limiter = new GradientLimiter(10, 5, 12);
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(0, 10, true);
+        }
+        assertEquals(5, limiter.limit());
+
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(MILLIS, limiter.limit(), false);
+        }
+        assertEquals(12, limiter.limit());
+    }
+
+    @Test
+    void concurrentSamplesKeepTheLimitInBounds() throws InterruptedException {
+        GradientLimiter limiter = new GradientLimiter(50, 10, 100);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean dropping = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    limiter.onSample(MILLIS * (1 + i % 5), limiter.limit(), dropping && i % 100 == 0);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(limiter.limit() >= 10 && limiter.limit() <= 100, "limit " + limiter.limit());
+    }
+}
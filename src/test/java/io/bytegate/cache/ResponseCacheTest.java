@@ -0,0 +1,275 @@
+package io.bytegate.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+    private static final CachePolicy POLICY = CachePolicy.of(Duration.ofMinutes(1));
+
+    @Test
+    void servesRepeatedRequestsFromTheCache() {
+        ResponseCache cache = new ResponseCache();
+        Counting handler = new Counting(() -> HttpResponse.ok("v"));
+
+        HttpResponse first = cache.get(get("/notes/1"), POLICY, handler);
+        HttpResponse second = cache.get(get("/notes/1"), POLICY, handler);
+
+        assertEquals(1, handler.calls.get());
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void keysOnTheQueryStringAndSelectedHeaders() {
+        ResponseCache cache = new ResponseCache();
+        Counting handler = new Counting(() -> HttpResponse.ok("v"));
+        CachePolicy byLanguage = POLICY.withHeaders("Accept-Language");
+
+        cache.get(get("/notes?page=1"), POLICY, handler);
+        cache.get(get("/notes?page=2"), POLICY, handler);
+        cache.get(request("/notes", "Accept-Language", "en"), byLanguage, handler);
+        cache.get(request("/notes", "Accept-Language", "de"), byLanguage, handler);
+        cache.get(request("/notes", "Accept-Language", "en"), byLanguage, handler);
+
+        assertEquals(4, handler.calls.get());
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        Counting handler = new Counting(() -> HttpResponse.ok("v"));
+        CachePolicy shortLived = CachePolicy.of(Duration.ofMillis(20));
+
+        cache.get(get("/a"), shortLived, handler);
+        Thread.sleep(50);
+        cache.get(get("/a"), shortLived, handler);
+
+        assertEquals(2, handler.calls.get());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void responseMaxAgeShortensTheTtl() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        Counting handler = new Counting(() -> response("Cache-Control", "public, max-age=0"));
+
+        cache.get(get("/a"), POLICY, handler);
+        cache.get(get("/a"), POLICY, handler);
+
+        assertEquals(2, handler.calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void doesNotStoreUncacheableResponses() {
+        ResponseCache cache = new ResponseCache();
+        List<Supplier<HttpResponse>> responses = List.of(
+                () -> response("Cache-Control", "no-store"),
+                () -> response("Cache-Control", "private"),
+                () -> response("Set-Cookie", "id=1"),
+                () -> HttpResponse.newBuilder().status(404, "Not Found").body("missing").build());
+
+        for (Supplier<HttpResponse> response : responses) {
+            Counting handler = new Counting(response);
+            cache.get(get("/a"), POLICY, handler);
+            cache.get(get("/a"), POLICY, handler);
+            assertEquals(2, handler.calls.get());
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void requestNoStoreBypassesTheCache() {
+        ResponseCache cache = new ResponseCache();
+        Counting handler = new Counting(() -> HttpResponse.ok("v"));
+
+        cache.get(request("/a", "Cache-Control", "no-store"), POLICY, handler);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void requestNoCacheAndMaxAgeZeroRefreshTheEntry() {
+        ResponseCache cache = new ResponseCache();
+        AtomicInteger version = new AtomicInteger();
+        Counting handler = new Counting(() -> HttpResponse.ok("v" + version.incrementAndGet()));
+
+        cache.get(get("/a"), POLICY, handler);
+        cache.get(request("/a", "Cache-Control", "no-cache"), POLICY, handler);
+        cache.get(request("/a", "Cache-Control", "max-age=0"), POLICY, handler);
+
+        assertEquals(3, handler.calls.get());
+        assertEquals("v3", body(cache.get(get("/a"), POLICY, handler)));
+        assertEquals(3, handler.calls.get());
+    }
+
+    @Test
+    void onlyCachesGetAndHeadWithoutAuthorization() {
+        ResponseCache cache = new ResponseCache();
+        Counting handler = new Counting(() -> HttpResponse.ok("v"));
+        HttpRequest post = HttpRequest.newBuilder()
+                .method("POST", HttpRequest.BodyPublishers.noBody())
+                .target("/a")
+                .build();
+
+        cache.get(post, POLICY, handler);
+        cache.get(request("/a", "Authorization", "Bearer t"), POLICY, handler);
+
+        assertEquals(2, handler.calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void coalescesConcurrentMissesIntoOneHandlerCall() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        CountDownLatch release = new CountDownLatch(1);
+        Counting handler = new Counting(() -> {
+            await(release);
+            return HttpResponse.ok("v");
+        });
+        int callers = 8;
+        List<HttpResponse> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            Thread thread = new Thread(() -> {
+                HttpResponse response = cache.get(get("/slow"), POLICY, handler);
+                synchronized (results) {
+                    results.add(response);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        waitUntilBlocked(threads);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, handler.calls.get());
+        assertEquals(callers - 1, cache.getCoalesced());
+        assertEquals(callers, results.size());
+        results.forEach(response -> assertSame(results.get(0), response));
+    }
+
+    @Test
+    void followersRetryWhenTheLeaderFails() throws InterruptedException {
+        ResponseCache cache = new ResponseCache();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<HttpResponse> handler = () -> {
+            if (calls.incrementAndGet() == 1) {
+                await(release);
+                throw new IllegalStateException("boom");
+            }
+            return HttpResponse.ok("v");
+        };
+        Thread leader = new Thread(() -> assertThrows(IllegalStateException.class,
+                () -> cache.get(get("/a"), POLICY, handler)));
+        leader.start();
+        waitUntilBlocked(List.of(leader));
+        HttpResponse[] follower = new HttpResponse[1];
+        Thread waiting = new Thread(() -> follower[0] = cache.get(get("/a"), POLICY, handler));
+        waiting.start();
+        waitUntilBlocked(List.of(waiting));
+        release.countDown();
+        leader.join();
+        waiting.join();
+
+        assertEquals(2, calls.get());
+        assertEquals("v", body(follower[0]));
+        assertEquals(0, cache.getCoalesced());
+    }
+
+    @Test
+    void evictsWhenTheEntryLimitIsReached() {
+        ResponseCache cache = new ResponseCache(2, Long.MAX_VALUE);
+        Counting handler = new Counting(() -> HttpResponse.ok("v"));
+
+        cache.get(get("/a"), POLICY, handler);
+        cache.get(get("/b"), POLICY, handler);
+        cache.get(get("/c"), POLICY, handler);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void skipsResponsesLargerThanTheCache() {
+        ResponseCache cache = new ResponseCache(10, 300);
+        Counting handler = new Counting(() -> HttpResponse.ok("x".repeat(100)));
+
+        cache.get(get("/a"), POLICY, handler);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.sizeInBytes());
+    }
+
+    private static HttpRequest get(String target) {
+        return HttpRequest.newBuilder().target(target).build();
+    }
+
+    private static HttpRequest request(String target, String header, String value) {
+        return HttpRequest.newBuilder().target(target).header(header, value).build();
+    }
+
+    private static HttpResponse response(String header, String value) {
+        return HttpResponse.newBuilder().status(200, "OK").header(header, value).body("v").build();
+    }
+
+    private static String body(HttpResponse response) {
+        HttpResponse.Body.Bytes bytes = (HttpResponse.Body.Bytes) response.getContent();
+        return StandardCharsets.UTF_8.decode(bytes.content().duplicate()).toString();
+    }
+
+    private static void waitUntilBlocked(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                assertTrue(thread.isAlive());
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Counting implements Supplier<HttpResponse> {
+        private final Supplier<HttpResponse> delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private Counting(Supplier<HttpResponse> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse get() {
+            calls.incrementAndGet();
+            return delegate.get();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.bytegate.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SegmentedLruMapTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        SegmentedLruMap<String, String> map = new SegmentedLruMap<>(1, 3, Long.MAX_VALUE);
+        map.put("a", "A", 1);
+        map.put("b", "B", 1);
+        map.put("c", "C", 1);
+        map.get("a");
+
+        assertEquals(1, map.put("d", "D", 1));
+        assertNull(map.get("b"));
+        assertEquals("A", map.get("a"));
+        assertEquals("C", map.get("c"));
+        assertEquals("D", map.get("d"));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void evictsUntilTheByteLimitHolds() {
+        SegmentedLruMap<String, String> map = new SegmentedLruMap<>(1, 100, 100);
+        map.put("a", "A", 40);
+        map.put("b", "B", 40);
+
+        assertEquals(2, map.put("c", "C", 90));
+        assertNull(map.get("a"));
+        assertNull(map.get("b"));
+        assertEquals(1, map.size());
+        assertEquals(90, map.sizeInBytes());
+    }
+
+    @Test
+    void tracksBytesAcrossReplaceRemoveAndClear() {
+        SegmentedLruMap<String, String> map = new SegmentedLruMap<>(100, 1000);
+        map.put("a", "A", 10);
+        map.put("b", "B", 20);
+        assertEquals(30, map.sizeInBytes());
+
+        map.put("a", "A2", 15);
+        assertEquals(2, map.size());
+        assertEquals(35, map.sizeInBytes());
+
+        assertFalse(map.remove("b", "other"));
+        assertTrue(map.remove("b", "B"));
+        assertEquals(1, map.size());
+        assertEquals(15, map.sizeInBytes());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.sizeInBytes());
+        assertNull(map.get("a"));
+    }
+
+    @Test
+    void keepsBothLimitsAcrossSegments() {
+        SegmentedLruMap<Integer, Integer> map = new SegmentedLruMap<>(8, 50, 400);
+        int evicted = 0;
+        for (int i = 0; i < 1000; i++) {
+            evicted += map.put(i, i, 1 + i % 10);
+            assertTrue(map.size() <= 50);
+            assertTrue(map.sizeInBytes() <= 400);
+        }
+        assertEquals(1000, evicted + map.size());
+    }
+
+    @Test
+    void keepsRecentlyReadEntriesAcrossSegments() {
+        SegmentedLruMap<Integer, Integer> map = new SegmentedLruMap<>(4, 100, Long.MAX_VALUE);
+        List<Integer> hot = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            hot.add(i);
+            map.put(i, i, 1);
+        }
+        for (int i = 10; i < 1000; i++) {
+            hot.forEach(map::get);
+            map.put(i, i, 1);
+        }
+
+        for (Integer key : hot) {
+            assertEquals(key, map.get(key));
+        }
+    }
+
+    @Test
+    void rejectsSegmentCountsThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedLruMap<>(3, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedLruMap<>(0, 10, 10));
+    }
+}
@@ -0,0 +1,195 @@
+package io.bytegate.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.bytegate.model.HttpRequest;
+import io.bytegate.model.HttpResponse;
+import io.bytegate.timeout.TimerWheel;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private static final RateLimitKey CLIENT = RateLimitKey.header("X-Client");
+
+    @Test
+    void limitsOnceTheBurstIsSpent() {
+        RateLimiter limiter = new RateLimiter(CLIENT, 10, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(limiter.intercept(request("a"), null));
+        }
+        HttpResponse limited = limiter.intercept(request("a"), null);
+
+        assertEquals(429, limited.getStatusCode());
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertNull(limiter.intercept(request("b"), null));
+        assertEquals(1, limiter.getLimited());
+    }
+
+    @Test
+    void refillsAfterTheInterval() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(CLIENT, 20, 1);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        long wait = limiter.tryAcquire("a");
+        assertTrue(wait > 0 && wait <= 50_000_000L, "wait " + wait);
+
+        Thread.sleep(60);
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void retryAfterRoundsTheWaitUpToWholeSeconds() {
+        RateLimiter slow = new RateLimiter(CLIENT, 0.1, 1);
+        slow.intercept(request("a"), null);
+        assertEquals("10", slow.intercept(request("a"), null).getHeader("Retry-After"));
+
+        RateLimiter slower = new RateLimiter(CLIENT, 1.0 / 120, 1);
+        slower.intercept(request("a"), null);
+        assertEquals("120", slower.intercept(request("a"), null).getHeader("Retry-After"));
+    }
+
+    @Test
+    void reusesRejectionsWithTheSameRetryAfter() {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1, 1);
+        limiter.intercept(request("a"), null);
+        limiter.intercept(request("b"), null);
+
+        assertSame(limiter.intercept(request("a"), null), limiter.intercept(request("b"), null));
+    }
+
+    @Test
+    void requestsWithoutAKeyAreNotLimited() {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1, 1);
+        HttpRequest anonymous = HttpRequest.newBuilder().target("/").build();
+
+        for (int i = 0; i < 5; i++) {
+            assertNull(limiter.intercept(anonymous, null));
+        }
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void newKeysAreLimitedWhileTheMapIsFull() {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1, 5, 2, Duration.ofMinutes(1));
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        assertTrue(limiter.tryAcquire("c") > 0);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(2, limiter.size());
+        assertEquals(1, limiter.getOverflowed());
+        assertEquals(1, limiter.getLimited());
+    }
+
+    @Test
+    void sweepEvictsBucketsFullForTheIdleTimeout() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1_000_000, 1, 100, Duration.ofMillis(50));
+        limiter.tryAcquire("a");
+
+        limiter.sweep();
+        assertEquals(1, limiter.size());
+
+        Thread.sleep(60);
+        limiter.sweep();
+        assertEquals(0, limiter.size());
+        assertEquals(1, limiter.getEvicted());
+    }
+
+    @Test
+    void sweepEvictsEveryFullBucketNearTheKeyLimit() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1_000_000, 1, 2, Duration.ofMinutes(1));
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        Thread.sleep(5);
+
+        limiter.sweep();
+
+        assertEquals(0, limiter.size());
+        assertEquals(2, limiter.getEvicted());
+        assertEquals(0, limiter.tryAcquire("c"));
+    }
+
+    @Test
+    void sweepKeepsBucketsThatAreNotFull() {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1, 5, 2, Duration.ofMillis(1));
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        limiter.sweep();
+
+        assertEquals(2, limiter.size());
+        assertEquals(0, limiter.getEvicted());
+    }
+
+    @Test
+    void sweepsInBoundedSteps() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1_000_000, 1, 10_000, Duration.ofMillis(1));
+        for (int i = 0; i < 5000; i++) {
+            limiter.tryAcquire(i);
+        }
+        Thread.sleep(5);
+
+        int steps = 1;
+        while (!limiter.sweep(1024)) {
+            steps++;
+            assertTrue(limiter.size() >= 5000 - steps * 1024);
+        }
+
+        assertEquals(5, steps);
+        assertEquals(0, limiter.size());
+        assertEquals(5000, limiter.getEvicted());
+    }
+
+    @Test
+    void scheduledSweepFinishesAcrossTimerTicks() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1_000_000, 1, 10_000, Duration.ofMillis(1));
+        for (int i = 0; i < 5000; i++) {
+            limiter.tryAcquire(i);
+        }
+        TimerWheel timerWheel = new TimerWheel(Duration.ofMillis(1), 64, e -> { });
+        timerWheel.start();
+        try {
+            limiter.scheduleSweep(timerWheel);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (limiter.size() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        } finally {
+            timerWheel.close();
+        }
+
+        assertEquals(0, limiter.size());
+        assertEquals(5000, limiter.getEvicted());
+    }
+
+    @Test
+    void evictedKeysStartAFreshBucket() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(CLIENT, 1_000_000, 1, 100, Duration.ofMillis(1));
+        limiter.tryAcquire("a");
+        Thread.sleep(5);
+        limiter.sweep();
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(1, limiter.size());
+        assertEquals(1, limiter.getEvicted());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(CLIENT, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(CLIENT, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(CLIENT, 1, 1, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(CLIENT, 1, 1, 1, Duration.ZERO));
+    }
+
+    private static HttpRequest request(String client) {
+        return HttpRequest.newBuilder().target("/").header("X-Client", client).build();
+    }
+}
@@ -0,0 +1,60 @@
+package io.bytegate.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL = 100;
+    private static final long BURST = 3 * INTERVAL;
+
+    @Test
+    void admitsABurstThenReportsTheWaitForTheNextToken() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        assertEquals(0, bucket.tryAcquire(0, INTERVAL, BURST));
+        assertEquals(0, bucket.tryAcquire(0, INTERVAL, BURST));
+        assertEquals(0, bucket.tryAcquire(0, INTERVAL, BURST));
+        assertEquals(100, bucket.tryAcquire(0, INTERVAL, BURST));
+        assertEquals(40, bucket.tryAcquire(60, INTERVAL, BURST));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0, INTERVAL, BURST);
+        }
+
+        assertEquals(0, bucket.tryAcquire(100, INTERVAL, BURST));
+        assertEquals(100, bucket.tryAcquire(100, INTERVAL, BURST));
+        assertEquals(0, bucket.tryAcquire(300, INTERVAL, BURST));
+        assertEquals(0, bucket.tryAcquire(300, INTERVAL, BURST));
+        assertEquals(100, bucket.tryAcquire(300, INTERVAL, BURST));
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanTheBurst() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(10_000, INTERVAL, BURST));
+        }
+        assertEquals(100, bucket.tryAcquire(10_000, INTERVAL, BURST));
+    }
+
+    @Test
+    void retiresOnlyWhenFullForTheGivenTime() {
+        TokenBucket bucket = new TokenBucket(0);
+        bucket.tryAcquire(0, INTERVAL, BURST);
+
+        assertFalse(bucket.retire(50, 0));
+        assertFalse(bucket.retire(150, 100));
+        assertTrue(bucket.retire(200, 100));
+        assertFalse(bucket.retire(300, 0));
+        assertEquals(TokenBucket.RETIRED, bucket.tryAcquire(300, INTERVAL, BURST));
+    }
+}
@@ -0,0 +1,385 @@
+package io.bytegate.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.bytegate.model.HttpRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HttpRequestParserTest {
+
+    private static final int MAX_BODY = 1024;
+    private static final int SPILL_THRESHOLD = 256;
+    private static final int MAX_REQUEST_LINE = 64;
+    private static final int MAX_HEADERS = 4;
+    private static final int MAX_HEAD = 512;
+
+    @Test
+    void parsesRequestLineAndHeaders() {
+        HttpRequest request = parseOne("GET /api/notes?id=7 HTTP/1.1\r\nHost: localhost\r\nX-Trace:  abc \r\n\r\n");
+
+        assertSame("GET", request.getMethod());
+        assertEquals("/api/notes", request.getPath());
+        assertEquals("7", request.getQueryParam("id"));
+        assertSame("HTTP/1.1", request.getVersion());
+        assertEquals("localhost", request.getHeader("host"));
+        assertEquals("abc", request.getHeader("X-Trace"));
+        assertTrue(request.bodyPublisher().isEmpty());
+    }
+
+    @Test
+    void acceptsBareLineFeedsAndSkipsLeadingBlankLines() {
+        HttpRequest request = parseOne("\r\n\nPOST /submit HTTP/1.0\nContent-Length: 2\n\nok");
+
+        assertSame("POST", request.getMethod());
+        assertSame("HTTP/1.0", request.getVersion());
+        assertEquals("ok", body(request));
+    }
+
+    @Test
+    void keepsUnknownMethodsThatAreTokens() {
+        assertEquals("PURGE", parseOne("PURGE /cache HTTP/1.1\r\n\r\n").getMethod());
+    }
+
+    @Test
+    void unfoldsObsoleteLineFolding() {
+        HttpRequest request = parseOne("GET / HTTP/1.1\r\nX-Long: first\r\n  second\r\n\tthird\r\nHost: h\r\n\r\n");
+
+        assertEquals("first second third", request.getHeader("X-Long"));
+        assertEquals("h", request.getHeader("Host"));
+    }
+
+    @Test
+    void resumesAcrossSplitReads() {
+        String raw = "POST /upload HTTP/1.1\r\nHost: h\r\nContent-Length: 11\r\n\r\nhello world";
+        HttpRequestParser parser = newParser(null);
+        byte[] bytes = ascii(raw);
+        for (int i = 0; i < bytes.length - 1; i++) {
+            parser.feed(ByteBuffer.wrap(bytes, i, 1));
+            assertNull(parser.tryParse(), "request completed early at byte " + i);
+        }
+        parser.feed(ByteBuffer.wrap(bytes, bytes.length - 1, 1));
+
+        HttpRequest request = parser.tryParse();
+        assertNotNull(request);
+        assertEquals("hello world", body(request));
+        assertFalse(parser.hasBufferedData());
+    }
+
+    @Test
+    void resumesAcrossShortStreamReads() throws IOException {
+        String raw = "POST /upload HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nhello\r\n6\r\n world\r\n0\r\n\r\n";
+        HttpRequestParser parser = newParser(new TrickleInputStream(ascii(raw)));
+
+        HttpRequest request = parser.parse();
+        assertEquals("hello world", body(request));
+        assertNull(parser.parse());
+    }
+
+    @Test
+    void parsesPipelinedRequestsFromOneBuffer() {
+        HttpRequestParser parser = newParser(null);
+        parser.feed(ByteBuffer.wrap(ascii("GET /a HTTP/1.1\r\n\r\nPOST /b HTTP/1.1\r\nContent-Length: 3\r\n\r\nxyzGET /c HT")));
+
+        assertEquals("/a", parser.tryParse().getPath());
+        HttpRequest second = parser.tryParse();
+        assertEquals("/b", second.getPath());
+        assertEquals("xyz", body(second));
+        assertNull(parser.tryParse());
+        assertTrue(parser.hasBufferedData());
+
+        parser.feed(ByteBuffer.wrap(ascii("TP/1.1\r\n\r\n")));
+        assertEquals("/c", parser.tryParse().getPath());
+    }
+
+    @Test
+    void decodesChunkedBodyWithExtensionsAndTrailers() {
+        HttpRequest request = parseOne("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "4;name=value\r\nWiki\r\n5 \r\npedia\r\n0\r\nX-Checksum: 1\r\n\r\n");
+
+        assertEquals("Wikipedia", body(request));
+    }
+
+    @Test
+    void spillsLargeBodiesPastTheThreshold() throws IOException {
+        byte[] payload = new byte[SPILL_THRESHOLD * 3];
+        Arrays.fill(payload, (byte) 'x');
+        HttpRequest request = parseOne("POST / HTTP/1.1\r\nContent-Length: " + payload.length + "\r\n\r\n"
+                + new String(payload, StandardCharsets.US_ASCII));
+
+        HttpRequest.BodyPublisher body = request.bodyPublisher().orElseThrow();
+        try (InputStream in = body.stream()) {
+            assertArrayEquals(payload, in.readAllBytes());
+        } finally {
+            body.release();
+        }
+    }
+
+    @Test
+    void defersSpillWritesUntilABlockingParse() throws IOException {
+        byte[] payload = new byte[SPILL_THRESHOLD * 3];
+        Arrays.fill(payload, (byte) 'x');
+        HttpRequestParser parser = newParser(null);
+        parser.deferDiskWrites(true);
+        parser.feed(ByteBuffer.wrap(ascii("POST / HTTP/1.1\r\nContent-Length: " + payload.length + "\r\n\r\n")));
+        parser.feed(ByteBuffer.wrap(payload, 0, SPILL_THRESHOLD));
+
+        assertNull(parser.tryParse());
+        assertTrue(parser.isDiskWritePending());
+        assertFalse(parser.hasSpilledBody());
+
+        assertNull(parser.tryParseBlocking());
+        assertFalse(parser.isDiskWritePending());
+        assertTrue(parser.hasSpilledBody());
+
+        parser.feed(ByteBuffer.wrap(payload, SPILL_THRESHOLD, payload.length - SPILL_THRESHOLD));
+        assertNull(parser.tryParse());
+        assertTrue(parser.isDiskWritePending());
+
+        HttpRequest request = parser.tryParseBlocking();
+        assertNotNull(request);
+        HttpRequest.BodyPublisher body = request.bodyPublisher().orElseThrow();
+        try (InputStream in = body.stream()) {
+            assertArrayEquals(payload, in.readAllBytes());
+        } finally {
+            body.release();
+        }
+    }
+
+    @Test
+    void keepsSmallBodiesInMemoryWhenDeferringSpills() {
+        HttpRequestParser parser = newParser(null);
+        parser.deferDiskWrites(true);
+        parser.feed(ByteBuffer.wrap(ascii("POST / HTTP/1.1\r\nContent-Length: 5\r\n\r\nhello")));
+
+        HttpRequest request = parser.tryParse();
+        assertNotNull(request);
+        assertFalse(parser.isDiskWritePending());
+        assertEquals("hello", body(request));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "GET /\r\n\r\n",
+            "GET\r\n\r\n",
+            " GET / HTTP/1.1\r\n\r\n",
+            "GET  / HTTP/1.1\r\n\r\n",
+            "G(T / HTTP/1.1\r\n\r\n",
+            "GET / HTTP/11\r\n\r\n",
+            "GET / FTP/1.1\r\n\r\n",
+            "GET / HTTP/1.x\r\n\r\n",
+    })
+    void rejectsMalformedRequestLines(String raw) {
+        assertStatus(400, raw);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "GET / HTTP/1.1\r\n folded: first\r\n\r\n",
+            "GET / HTTP/1.1\r\nNoColon\r\n\r\n",
+            "GET / HTTP/1.1\r\n: empty-name\r\n\r\n",
+            "GET / HTTP/1.1\r\nHost : h\r\n\r\n",
+            "GET / HTTP/1.1\r\nBad(Name): v\r\n\r\n",
+    })
+    void rejectsMalformedHeaders(String raw) {
+        assertStatus(400, raw);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "POST / HTTP/1.1\r\nContent-Length: -1\r\n\r\n",
+            "POST / HTTP/1.1\r\nContent-Length: 1e3\r\n\r\n",
+            "POST / HTTP/1.1\r\nContent-Length: \r\n\r\n",
+            "POST / HTTP/1.1\r\nContent-Length: 1234567890123456789\r\n\r\n",
+            "POST / HTTP/1.1\r\nContent-Length: 3\r\nContent-Length: 4\r\n\r\nabcd",
+            "POST / HTTP/1.1\r\nContent-Length: 3\r\nTransfer-Encoding: chunked\r\n\r\n",
+    })
+    void rejectsInvalidBodyFraming(String raw) {
+        assertStatus(400, raw);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n",
+            "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n;ext\r\n",
+            "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n1234567890abcdef0\r\n",
+            "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n3\r\nabcX\r\n",
+    })
+    void rejectsInvalidChunks(String raw) {
+        assertStatus(400, raw);
+    }
+
+    @Test
+    void rejectsOverlongChunkSizeLine() {
+        String padding = "0".repeat(2048);
+        assertStatus(400, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n" + padding);
+    }
+
+    @Test
+    void rejectsTruncatedStream() {
+        HttpRequestParser parser = newParser(new ByteArrayInputStream(ascii("GET / HTTP/1.1\r\nHost: h\r\n")));
+
+        HttpParseException e = assertThrows(HttpParseException.class, parser::parse);
+        assertEquals(400, e.getStatusCode());
+    }
+
+    @Test
+    void rejectsDeclaredBodyOverTheLimit() {
+        assertStatus(413, "POST / HTTP/1.1\r\nContent-Length: " + (MAX_BODY + 1) + "\r\n\r\n");
+    }
+
+    @Test
+    void rejectsChunkedBodyGrowingOverTheLimit() {
+        String chunk = "x".repeat(600);
+        String raw = "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + Integer.toHexString(chunk.length()) + "\r\n" + chunk + "\r\n"
+                + Integer.toHexString(chunk.length()) + "\r\n" + chunk + "\r\n0\r\n\r\n";
+        assertStatus(413, raw);
+    }
+
+    @Test
+    void rejectsLongRequestLineBeforeTheHeadIsComplete() {
+        assertStatus(414, "GET /" + "a".repeat(MAX_REQUEST_LINE) + " HTTP/1.1\r\n");
+    }
+
+    @Test
+    void rejectsLongRequestLineInACompleteHead() {
+        assertStatus(414, "GET /" + "a".repeat(MAX_REQUEST_LINE) + " HTTP/1.1\r\nHost: h\r\n\r\n");
+    }
+
+    @Test
+    void rejectsTooManyHeaders() {
+        StringBuilder raw = new StringBuilder("GET / HTTP/1.1\r\n");
+        for (int i = 0; i <= MAX_HEADERS; i++) {
+            raw.append("X-").append(i).append(": v\r\n");
+        }
+        assertStatus(431, raw.append("\r\n").toString());
+    }
+
+    @Test
+    void rejectsOversizedHeadBeforeItIsComplete() {
+        assertStatus(431, "GET / HTTP/1.1\r\nX-Big: " + "v".repeat(MAX_HEAD) + "\r\n");
+    }
+
+    @Test
+    void rejectsOversizedCompleteHead() {
+        assertStatus(431, "GET / HTTP/1.1\r\nX-Big: " + "v".repeat(MAX_HEAD) + "\r\n\r\n");
+    }
+
+    @Test
+    void rejectsTooManyTrailerFields() {
+        StringBuilder raw = new StringBuilder("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n0\r\n");
+        for (int i = 0; i <= MAX_HEADERS; i++) {
+            raw.append("X-").append(i).append(": v\r\n");
+        }
+        assertStatus(431, raw.append("\r\n").toString());
+    }
+
+    @Test
+    void rejectsOversizedTrailersBeforeTheyAreComplete() {
+        assertStatus(431, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n1\r\na\r\n0\r\n"
+                + "X-Big: " + "v".repeat(MAX_HEAD));
+    }
+
+    @Test
+    void rejectsOversizedTrailersAcrossLines() {
+        String line = "X-Big: " + "v".repeat(MAX_HEAD / 3) + "\r\n";
+        assertStatus(431, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n0\r\n" + line + line + line + "\r\n");
+    }
+
+    @Test
+    void acceptsTrailersAtTheLimits() {
+        StringBuilder raw = new StringBuilder("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n2\r\nok\r\n0\r\n");
+        for (int i = 0; i < MAX_HEADERS; i++) {
+            raw.append("X-").append(i).append(": v\r\n").append(" folded\r\n");
+        }
+
+        assertEquals("ok", body(parseOne(raw.append("\r\n").toString())));
+    }
+
+    @Test
+    void rejectsUnsupportedTransferEncoding() {
+        assertStatus(501, "POST / HTTP/1.1\r\nTransfer-Encoding: gzip\r\n\r\n");
+    }
+
+    @Test
+    void acceptsRequestsAtTheLimits() {
+        StringBuilder raw = new StringBuilder("GET /" + "a".repeat(MAX_REQUEST_LINE - 15) + " HTTP/1.1\r\n");
+        for (int i = 1; i < MAX_HEADERS; i++) {
+            raw.append("X-").append(i).append(": v\r\n");
+        }
+        raw.append("Content-Length: ").append(MAX_BODY).append("\r\n\r\n").append("b".repeat(MAX_BODY));
+
+        HttpRequest request = parseOne(raw.toString());
+        assertEquals(MAX_BODY, request.bodyPublisher().orElseThrow().contentLength());
+        request.bodyPublisher().orElseThrow().release();
+    }
+
+    private static HttpRequestParser newParser(InputStream input) {
+        return new HttpRequestParser(input, MAX_BODY, SPILL_THRESHOLD, false, MAX_REQUEST_LINE, MAX_HEADERS, MAX_HEAD);
+    }
+
+    private static HttpRequest parseOne(String raw) {
+        HttpRequestParser parser = newParser(null);
+        parser.feed(ByteBuffer.wrap(ascii(raw)));
+        HttpRequest request = parser.tryParse();
+        assertNotNull(request, "request was not complete");
+        return request;
+    }
+
+    private static void assertStatus(int status, String raw) {
+        HttpRequestParser parser = newParser(null);
+        parser.feed(ByteBuffer.wrap(ascii(raw)));
+        HttpParseException e = assertThrows(HttpParseException.class, parser::tryParse);
+        assertEquals(status, e.getStatusCode(), e.getMessage());
+    }
+
+    private static String body(HttpRequest request) {
+        return new String(request.bodyPublisher().orElseThrow().getBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class TrickleInputStream extends InputStream {
+
+        private final byte[] data;
+        private int position;
+
+        TrickleInputStream(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position == data.length) {
+                return -1;
+            }
+            int count = Math.min(len, 3);
+            count = Math.min(count, data.length - position);
+            System.arraycopy(data, position, b, off, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.bytegate.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.bytegate.model.HttpResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class HttpResponseWriterTest {
+
+    @Test
+    void chunksStreamsOfUnknownLength() throws IOException {
+        String written = write(streaming("hello", -1), true, true);
+
+        assertTrue(written.contains("Transfer-Encoding: chunked\r\n"), written);
+        assertTrue(written.contains("Connection: keep-alive\r\n"), written);
+        assertTrue(written.endsWith("\r\n\r\n5\r\nhello\r\n0\r\n\r\n"), written);
+    }
+
+    @Test
+    void closeDelimitsStreamsOfUnknownLengthWithoutChunking() throws IOException {
+        HttpResponse response = streaming("hello", -1);
+        assertTrue(HttpResponseWriter.isCloseDelimited(response, false));
+
+        String written = write(response, true, false);
+
+        assertFalse(written.contains("Transfer-Encoding"), written);
+        assertFalse(written.contains("Content-Length"), written);
+        assertTrue(written.contains("Connection: close\r\n"), written);
+        assertTrue(written.endsWith("\r\n\r\nhello"), written);
+    }
+
+    @Test
+    void sendsStreamsOfKnownLengthWithContentLength() throws IOException {
+        HttpResponse response = streaming("hello", 5);
+        assertFalse(HttpResponseWriter.isCloseDelimited(response, false));
+
+        String written = write(response, true, false);
+
+        assertTrue(written.contains("Content-Length: 5\r\n"), written);
+        assertTrue(written.contains("Connection: keep-alive\r\n"), written);
+        assertTrue(written.endsWith("\r\n\r\nhello"), written);
+    }
+
+    @Test
+    void closesStreamBodiesOfBodilessResponses() throws IOException {
+        TrackedStream input = new TrackedStream("ignored");
+        HttpResponse response = HttpResponse.newBuilder().status(204, "No Content").body(input).build();
+        assertFalse(HttpResponseWriter.isCloseDelimited(response, false));
+
+        String written = write(response, true, false);
+
+        assertTrue(input.closed);
+        assertTrue(written.endsWith("Connection: keep-alive\r\n\r\n"), written);
+        assertFalse(written.contains("ignored"), written);
+    }
+
+    @Test
+    void closesStreamBodiesOfBodilessResponsesInABatch() throws IOException {
+        TrackedStream input = new TrackedStream("ignored");
+        HttpResponse[] responses = {
+                HttpResponse.ok("a"),
+                HttpResponse.newBuilder().status(304, "Not Modified").body(input).build(),
+                HttpResponse.ok("b")
+        };
+        HttpResponseWriter writer = new HttpResponseWriter();
+
+        assertEquals(3, writer.batchEnd(responses, 0, 3));
+        writer.encode(responses, 0, 3, true);
+
+        assertTrue(input.closed);
+    }
+
+    private static String write(HttpResponse response, boolean keepAlive, boolean chunked) throws IOException {
+        HttpResponseWriter writer = new HttpResponseWriter();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(output, writer.encode(response, keepAlive, chunked));
+        return output.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static HttpResponse streaming(String body, long length) {
+        return HttpResponse.newBuilder().status(200, "OK").body(new TrackedStream(body), length).build();
+    }
+
+    private static final class TrackedStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        private TrackedStream(String content) {
+            super(content.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}